@@ -0,0 +1,28 @@
+package com.adriano.library.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+// Signs each benchmark thread in as an admin, for the @PreAuthorize service methods
+@State(Scope.Thread)
+public class AdminCaller {
+
+    @Setup(Level.Trial)
+    public void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,122 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.logic.service.BookService;
+import com.adriano.library.business.logic.service.LoanService;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Time per row of the batch CRUD API against the same rows saved one call at a time. Loans go
+ * through the batch hooks, so their books are validated and recounted once per batch rather
+ * than once per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BatchCrudBenchmarks.ROWS)
+public class BatchCrudBenchmarks {
+
+    static final int ROWS = 500;
+    private static final int LOAN_BOOKS = 20;
+
+    // Books with room for every loan the run adds, so no save is rejected
+    @State(Scope.Benchmark)
+    public static class LoanBooks {
+
+        final List<Long> ids = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void create(LibraryState library) {
+            for (int b = 0; b < LOAN_BOOKS; b++) {
+                Book book = new Book();
+                book.setTitle("Batch target " + b);
+                book.setIsbn("BATCH-" + b);
+                book.setTotalCopies(Integer.MAX_VALUE / 2);
+                book.setLoanedCopies(0);
+                ids.add(library.bean(BookRepository.class).save(book).getId());
+            }
+        }
+    }
+
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    @Benchmark
+    public void booksOneByOne(LibraryState library, AdminCaller caller) {
+        BookService books = library.bean(BookService.class);
+        for (int i = 0; i < ROWS; i++) {
+            books.save(book(NEXT.incrementAndGet()));
+        }
+    }
+
+    @Benchmark
+    public void booksBatched(LibraryState library, AdminCaller caller) {
+        library.bean(BookService.class).saveAll(rows(BatchCrudBenchmarks::book));
+    }
+
+    @Benchmark
+    public void loansOneByOne(LibraryState library, LoanBooks targets, AdminCaller caller) {
+        LoanService loans = library.bean(LoanService.class);
+        for (int i = 0; i < ROWS; i++) {
+            loans.save(loan(library, targets, NEXT.incrementAndGet()));
+        }
+    }
+
+    @Benchmark
+    public void loansBatched(LibraryState library, LoanBooks targets, AdminCaller caller) {
+        library.bean(LoanService.class).saveAll(rows(n -> loan(library, targets, n)));
+    }
+
+    private static <T> List<T> rows(LongFunction<T> row) {
+        List<T> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(row.apply(NEXT.incrementAndGet()));
+        }
+        return rows;
+    }
+
+    private static Book book(long n) {
+        Book book = new Book();
+        book.setTitle("Batch book " + n);
+        book.setIsbn("BB-" + n);
+        book.setTotalCopies(1);
+        book.setLoanedCopies(0);
+        return book;
+    }
+
+    private static Loan loan(LibraryState library, LoanBooks targets, long n) {
+        Book book = new Book();
+        book.setId(targets.ids.get((int) (n % LOAN_BOOKS)));
+        User user = new User();
+        user.setId(library.readerId);
+
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setUser(user);
+        loan.setLoanDate(LocalDate.now().minusDays(n % 30));
+        loan.setReturnDate(loan.getLoanDate().plusDays(7));
+        return loan;
+    }
+}
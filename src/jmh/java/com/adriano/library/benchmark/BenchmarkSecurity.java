@@ -0,0 +1,26 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.business.logic.service.CustomUserDetailsService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+/**
+ * Filter chain for HTTP load benchmarks: HTTP Basic once, then the session cookie, so requests
+ * don't each pay a password hash; no CSRF token to scrape from forms. Not a @Configuration on
+ * purpose, so component scanning leaves it out; states add it as an application source.
+ */
+class BenchmarkSecurity {
+
+    @Bean
+    SecurityFilterChain benchmarkSecurity(HttpSecurity http, CustomUserDetailsService userDetailsService) throws Exception {
+        return http
+                .userDetailsService(userDetailsService)
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .httpBasic(basic -> basic.securityContextRepository(new HttpSessionSecurityContextRepository()))
+                .csrf(AbstractHttpConfigurer::disable)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.business.logic.service.LoanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkouts per second through {@link LoanService#save} as the number of concurrent callers grows.
+ * A fully booked title is a clean rejection and counts as a completed checkout attempt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmarks {
+
+    @Benchmark
+    @Threads(1)
+    public boolean checkout1(LibraryState library, AdminCaller caller) {
+        return checkout(library);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean checkout4(LibraryState library, AdminCaller caller) {
+        return checkout(library);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean checkout16(LibraryState library, AdminCaller caller) {
+        return checkout(library);
+    }
+
+    private static boolean checkout(LibraryState library) {
+        try {
+            library.bean(LoanService.class).save(library.randomNewLoan());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.LibraryApplication;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.enums.UserRole;
+import com.adriano.library.business.logic.service.BookAvailabilityIndex;
+import com.adriano.library.business.logic.service.CatalogSearchService;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application on an embedded H2 database, seeded with {@code books} books, five loans per
+ * book spread over the last and next few months, and one reader per ten books.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    static final int LOANS_PER_BOOK = 5;
+    static final int COPIES_PER_BOOK = 3;
+
+    @Param({"1000", "10000"})
+    public int books;
+
+    ConfigurableApplicationContext context;
+    final List<Long> bookIds = new ArrayList<>();
+    final List<String> emails = new ArrayList<>();
+    Long readerId;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        context = new SpringApplicationBuilder(sources())
+                .profiles("test")
+                .properties(properties())
+                .run();
+        seed();
+        // Both are built at startup, before the seed data existed
+        context.getBean(BookAvailabilityIndex.class).load();
+        context.getBean(CatalogSearchService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+    }
+
+    // Extension points for states that need a different application setup
+    protected Class<?>[] sources() {
+        return new Class<?>[]{LibraryApplication.class};
+    }
+
+    protected String[] properties() {
+        return new String[]{"server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN"};
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    Long randomBookId() {
+        return bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size()));
+    }
+
+    String randomEmail() {
+        return emails.get(ThreadLocalRandom.current().nextInt(emails.size()));
+    }
+
+    Loan randomNewLoan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Book book = new Book();
+        book.setId(randomBookId());
+        User user = new User();
+        user.setId(readerId);
+
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setUser(user);
+        loan.setLoanDate(LocalDate.now().plusDays(random.nextInt(60)));
+        loan.setReturnDate(loan.getLoanDate().plusDays(1 + random.nextInt(14)));
+        return loan;
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        String password = new BCryptPasswordEncoder(4).encode("password123");
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, books / 10); i++) {
+            User user = new User();
+            user.setEmail("reader" + i + "@example.com");
+            user.setPassword(password);
+            user.setUserRole(UserRole.USER);
+            users.add(user);
+        }
+        users = bean(UserRepository.class).saveAll(users);
+        users.forEach(u -> emails.add(u.getEmail()));
+        readerId = users.get(0).getId();
+
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            Book book = new Book();
+            book.setTitle("Synthetic Title " + i);
+            book.setIsbn("978-" + (1_000_000 + i));
+            book.setTotalCopies(COPIES_PER_BOOK);
+            book.setLoanedCopies(0);
+            catalog.add(book);
+        }
+        catalog = bean(BookRepository.class).saveAll(catalog);
+        catalog.forEach(b -> bookIds.add(b.getId()));
+
+        List<Loan> loans = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (Book book : catalog) {
+            for (int i = 0; i < LOANS_PER_BOOK; i++) {
+                Loan loan = new Loan();
+                loan.setBook(book);
+                loan.setUser(users.get(random.nextInt(users.size())));
+                loan.setLoanDate(today.plusDays(random.nextInt(240) - 180));
+                loan.setReturnDate(loan.getLoanDate().plusDays(7 + random.nextInt(14)));
+                loans.add(loan);
+            }
+        }
+        bean(LoanRepository.class).saveAll(loans);
+    }
+}
@@ -0,0 +1,68 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Status of every row of the loans page: derived from the dates on each call, as before it was
+// stored, against reading the stored column; no database involved
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoanStatusBenchmark {
+
+    @Param({"1000", "100000"})
+    public int loans;
+
+    private Loan[] sample;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        sample = new Loan[loans];
+        for (int i = 0; i < loans; i++) {
+            Loan loan = new Loan();
+            loan.setLoanDate(today.plusDays(random.nextInt(60) - 30));
+            loan.setReturnDate(loan.getLoanDate().plusDays(1 + random.nextInt(21)));
+            loan.setStatus(LoanStatus.of(loan.getLoanDate(), loan.getReturnDate()));
+            sample[i] = loan;
+        }
+    }
+
+    @Benchmark
+    public LoanStatus derived() {
+        Loan loan = nextLoan();
+        return LoanStatus.of(loan.getLoanDate(), loan.getReturnDate());
+    }
+
+    @Benchmark
+    public LoanStatus stored() {
+        return nextLoan().getStatus();
+    }
+
+    private Loan nextLoan() {
+        Loan loan = sample[next];
+        next = next + 1 == sample.length ? 0 : next + 1;
+        return loan;
+    }
+}
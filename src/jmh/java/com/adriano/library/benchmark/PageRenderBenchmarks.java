@@ -0,0 +1,68 @@
+package com.adriano.library.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Whole list pages through the MVC stack: security filters, controller, row query and
+ * Thymeleaf rendering of books/list and loans/list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageRenderBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Pages {
+
+        @Param({"20", "100"})
+        public int pageSize;
+
+        MockMvc mvc;
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library) {
+            mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) library.context)
+                    .apply(springSecurity())
+                    .build();
+        }
+
+        String render(String path) throws Exception {
+            return mvc.perform(get(path)
+                            .param("size", String.valueOf(pageSize))
+                            .with(user("admin").roles("ADMIN")))
+                    .andReturn().getResponse().getContentAsString();
+        }
+    }
+
+    @Benchmark
+    public String booksList(Pages pages) throws Exception {
+        return pages.render("/books");
+    }
+
+    @Benchmark
+    public String loansList(Pages pages) throws Exception {
+        return pages.render("/loans");
+    }
+}
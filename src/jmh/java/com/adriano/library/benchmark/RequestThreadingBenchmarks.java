@@ -0,0 +1,119 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.LibraryApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second over real HTTP with many more concurrent clients than Tomcat has platform
+ * threads, on platform request threads versus one virtual thread per request. The loan list and
+ * checkout both block on the database for most of their time.
+ * <p>
+ * The embedded H2 database answers in microseconds, which understates the difference; point the
+ * run at MySQL for representative numbers (-Dspring.datasource.url=... overrides the test profile).
+ * The fork traces virtual threads that pin their carrier while blocked, so a regression shows up
+ * as stack traces in the benchmark output.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class RequestThreadingBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Server extends LibraryState {
+
+        @Param({"platform", "virtual"})
+        public String requestThreads;
+
+        final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        @Override
+        protected Class<?>[] sources() {
+            return new Class<?>[]{LibraryApplication.class, BenchmarkSecurity.class};
+        }
+
+        @Override
+        protected String[] properties() {
+            return new String[]{"server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                    "spring.threads.virtual.enabled=" + requestThreads.equals("virtual")};
+        }
+
+        URI uri(String path) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    // One signed-in reader per benchmark thread
+    @State(Scope.Thread)
+    public static class Reader {
+
+        String cookie;
+
+        @Setup(Level.Trial)
+        public void signIn(Server server) throws IOException, InterruptedException {
+            String credentials = server.randomEmail() + ":password123";
+            HttpResponse<Void> response = server.http.send(HttpRequest.newBuilder(server.uri("/loans?size=1"))
+                            .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            cookie = response.headers().firstValue("Set-Cookie")
+                    .map(header -> header.substring(0, header.indexOf(';')))
+                    .orElseThrow(() -> new IllegalStateException("Sign-in failed: HTTP " + response.statusCode()));
+        }
+    }
+
+    @Benchmark
+    public int loanList(Server server, Reader reader) throws IOException, InterruptedException {
+        return server.http.send(HttpRequest.newBuilder(server.uri("/loans"))
+                        .header("Cookie", reader.cookie)
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Some checkouts find no free copy and get the form back; both outcomes are a full booking attempt
+    @Benchmark
+    public int checkout(Server server, Reader reader) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate loanDate = LocalDate.now().plusDays(random.nextInt(60));
+        String form = "book.id=" + server.randomBookId()
+                + "&loanDate=" + loanDate
+                + "&returnDate=" + loanDate.plusDays(1 + random.nextInt(14));
+        return server.http.send(HttpRequest.newBuilder(server.uri("/loans"))
+                        .header("Cookie", reader.cookie)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
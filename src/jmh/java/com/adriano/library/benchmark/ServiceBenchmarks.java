@@ -0,0 +1,63 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.logic.service.BookAvailabilityIndex;
+import com.adriano.library.business.logic.service.BookService;
+import com.adriano.library.business.logic.service.CustomUserDetailsService;
+import com.adriano.library.business.logic.service.LoanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    // Full check of a new loan: dates, book lookup and the availability sweep
+    @Benchmark
+    public boolean validateLoan(LibraryState library, AdminCaller caller) {
+        try {
+            library.bean(LoanService.class).beforeSave(library.randomNewLoan());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false; // fully booked is a valid outcome
+        }
+    }
+
+    // In-memory availability sweep alone, as bookings run it
+    @Benchmark
+    public int peakConcurrentLoans(LibraryState library) {
+        Loan loan = library.randomNewLoan();
+        return library.bean(BookAvailabilityIndex.class)
+                .peakConcurrentLoans(loan.getBook().getId(), loan.getLoanDate(), loan.getReturnDate(), null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Book> findAll(LibraryState library, AdminCaller caller) {
+        return library.bean(BookService.class).findAll();
+    }
+
+    @Benchmark
+    public Optional<Book> findById(LibraryState library, AdminCaller caller) {
+        return library.bean(BookService.class).findById(library.randomBookId());
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername(LibraryState library) {
+        return library.bean(CustomUserDetailsService.class).loadUserByUsername(library.randomEmail());
+    }
+}
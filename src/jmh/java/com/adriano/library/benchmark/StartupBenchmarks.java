@@ -0,0 +1,85 @@
+package com.adriano.library.benchmark;
+
+import com.adriano.library.LibraryApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start with eager bean creation against the lazy initialization of the fast profile: time
+ * until the context is up, and until the first request (the books list: security, a query and a
+ * template) has been answered. Every fork is a new JVM, so each measurement is one cold start.
+ * <p>
+ * Both run from the classpath on the embedded H2 database with the dev security chain and Flyway
+ * off (the migrations are MySQL SQL), so neither is the production boot path: the Flyway
+ * clean-and-migrate of reset-db or the validate of fast is not timed, and neither are the AOT
+ * classes and CDS archive of the fast-start jar. Those need the production database; time the
+ * java command in pom.xml against a plain java -jar of the same jar.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Boot {
+
+        @Param({"eager", "lazy"})
+        public String boot;
+
+        final HttpClient http = HttpClient.newHttpClient();
+        ConfigurableApplicationContext context;
+
+        void start() {
+            String profiles = boot.equals("lazy") ? "test,dev,fast" : "test,dev";
+            // Command-line arguments, so they win over spring.profiles.active in application.properties
+            context = new SpringApplicationBuilder(LibraryApplication.class)
+                    .run("--spring.profiles.active=" + profiles, "--server.port=0",
+                            "--spring.flyway.enabled=false", "--logging.level.root=WARN");
+        }
+
+        int get(String path) throws IOException, InterruptedException {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (context != null) context.close();
+        }
+    }
+
+    @Benchmark
+    public Object startup(Boot boot) {
+        boot.start();
+        return boot.context;
+    }
+
+    @Benchmark
+    public int startupAndFirstRequest(Boot boot) throws IOException, InterruptedException {
+        boot.start();
+        return boot.get("/books");
+    }
+}
@@ -0,0 +1,11 @@
+package com.adriano.library.business.domain.dto;
+
+import lombok.Value;
+
+// Columns rendered by authors/list.html
+@Value
+public class AuthorRow {
+    Long id;
+    String name;
+    String bookTitle;
+}
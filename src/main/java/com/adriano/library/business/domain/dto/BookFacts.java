@@ -0,0 +1,13 @@
+package com.adriano.library.business.domain.dto;
+
+// What the dashboard counts of a book
+public record BookFacts(Long id, Integer totalCopies, Integer loanedCopies) {
+
+    public int total() {
+        return totalCopies != null ? totalCopies : 0;
+    }
+
+    public int available() {
+        return total() - (loanedCopies != null ? loanedCopies : 0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.adriano.library.business.domain.dto;
+
+import com.adriano.library.business.domain.enums.CoverVariant;
+import lombok.Value;
+
+// Columns rendered by books/list.html
+@Value
+public class BookRow {
+    Long id;
+    String title;
+    String isbn;
+    Integer totalCopies;
+    Integer loanedCopies;
+    String imagePath;
+
+    // Null counts as none, as in BookFacts
+    public Integer getAvailableCopies() {
+        return (totalCopies != null ? totalCopies : 0) - (loanedCopies != null ? loanedCopies : 0);
+    }
+
+    public String getThumbnailPath() {
+        return CoverVariant.THUMB.of(imagePath);
+    }
+}
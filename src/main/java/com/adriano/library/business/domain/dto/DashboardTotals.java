@@ -0,0 +1,12 @@
+package com.adriano.library.business.domain.dto;
+
+// Home page figures; open loans are the active and reserved ones
+public record DashboardTotals(long books, long totalCopies, long availableCopies,
+                              long activeLoans, long reservedLoans, long borrowers) {
+
+    public static final DashboardTotals EMPTY = new DashboardTotals(0, 0, 0, 0, 0, 0);
+
+    public double getLoansPerUser() {
+        return borrowers == 0 ? 0 : (double) (activeLoans + reservedLoans) / borrowers;
+    }
+}
@@ -0,0 +1,11 @@
+package com.adriano.library.business.domain.dto;
+
+import com.adriano.library.business.domain.enums.LoanStatus;
+
+// What the dashboard counts of a loan
+public record LoanFacts(Long id, Long bookId, Long userId, LoanStatus status) {
+
+    public boolean isOpen() {
+        return status != LoanStatus.RETURNED;
+    }
+}
@@ -0,0 +1,7 @@
+package com.adriano.library.business.domain.dto;
+
+import java.time.LocalDate;
+
+// Date range a loan occupies one copy of a book for (both ends inclusive)
+public record LoanInterval(Long loanId, Long bookId, LocalDate loanDate, LocalDate returnDate) {
+}
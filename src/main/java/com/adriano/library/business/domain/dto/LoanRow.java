@@ -0,0 +1,24 @@
+package com.adriano.library.business.domain.dto;
+
+import com.adriano.library.business.domain.enums.CoverVariant;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Columns rendered by loans/list.html
+@Value
+public class LoanRow {
+    Long id;
+    String bookTitle;
+    String bookIsbn;
+    String bookImagePath;
+    String userEmail;
+    LocalDate loanDate;
+    LocalDate returnDate;
+    LoanStatus status;
+
+    public String getBookThumbnailPath() {
+        return CoverVariant.THUMB.of(bookImagePath);
+    }
+}
@@ -0,0 +1,11 @@
+package com.adriano.library.business.domain.dto;
+
+import lombok.Value;
+
+// Columns rendered by publishers/list.html
+@Value
+public class PublisherRow {
+    Long id;
+    String name;
+    String bookTitle;
+}
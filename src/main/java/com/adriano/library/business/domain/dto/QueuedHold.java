@@ -0,0 +1,7 @@
+package com.adriano.library.business.domain.dto;
+
+import java.time.LocalDateTime;
+
+// A waiting hold as HoldQueue orders it: by request time, then id
+public record QueuedHold(Long id, Long bookId, LocalDateTime requestedAt) {
+}
@@ -0,0 +1,7 @@
+package com.adriano.library.business.domain.dto;
+
+import java.time.LocalDate;
+
+// One loan in a reminder mail
+public record ReminderLine(Long loanId, Long userId, String email, String bookTitle, LocalDate returnDate) {
+}
@@ -0,0 +1,5 @@
+package com.adriano.library.business.domain.dto;
+
+// One ranked catalog search result; type is "book", "author" or "publisher"
+public record SearchHit(String type, Long id, String label, String detail, double score) {
+}
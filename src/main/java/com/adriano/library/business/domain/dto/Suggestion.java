@@ -0,0 +1,5 @@
+package com.adriano.library.business.domain.dto;
+
+// One typeahead match for a form picker; available is the book's free copies today (null for users)
+public record Suggestion(Long id, String label, String detail, Integer available) {
+}
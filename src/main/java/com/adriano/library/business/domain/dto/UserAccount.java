@@ -0,0 +1,7 @@
+package com.adriano.library.business.domain.dto;
+
+import com.adriano.library.business.domain.enums.UserRole;
+
+// Immutable snapshot of a user for authentication and ownership checks; safe to cache and share
+public record UserAccount(Long id, String email, String password, UserRole role) {
+}
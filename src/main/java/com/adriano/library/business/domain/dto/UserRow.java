@@ -0,0 +1,12 @@
+package com.adriano.library.business.domain.dto;
+
+import com.adriano.library.business.domain.enums.UserRole;
+import lombok.Value;
+
+// Columns of the user export and the email typeahead (never the password hash)
+@Value
+public class UserRow {
+    Long id;
+    String email;
+    UserRole userRole;
+}
@@ -1,8 +1,14 @@
 package com.adriano.library.business.domain.entity;
 
+import com.adriano.library.business.domain.enums.CoverVariant;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.Check;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,22 +16,37 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true)
 @Entity
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+// Named (V8), so LoanService can tell a full book from other integrity errors
+@Check(name = "chk_book_loaned_copies", constraints = "loaned_copies <= total_copies")
+// An edit writes only the columns it changed, so it never puts back a loanedCopies read before a checkout
+@DynamicUpdate
 public class Book extends BaseEntity {
 
     private String title;
     private String isbn;
     private Integer totalCopies;
+    // Kept by LoanService from the loans; recounting it does not bump the version the edit form checks
+    @OptimisticLock(excluded = true)
     private Integer loanedCopies;
     private String imagePath;
 
     @OneToMany(mappedBy = "book", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book.authors")
     private List<Author> authors = new ArrayList<>();
 
     @OneToMany(mappedBy = "book", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book.publishers")
     private List<Publisher> publishers = new ArrayList<>();
 
     @Transient
     public Integer getAvailableCopies() {
         return totalCopies - loanedCopies;
     }
+
+    @Transient
+    public String getDetailImagePath() {
+        return CoverVariant.DETAIL.of(imagePath);
+    }
 }
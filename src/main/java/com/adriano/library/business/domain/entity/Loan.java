@@ -1,10 +1,7 @@
 package com.adriano.library.business.domain.entity;
 
 import com.adriano.library.business.domain.enums.LoanStatus;
-import jakarta.persistence.Entity;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
-import jakarta.persistence.Transient;
+import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -14,6 +11,10 @@ import java.time.LocalDate;
 @EqualsAndHashCode(callSuper = true)
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_loan_status_loan_date", columnList = "status, loan_date"),
+        @Index(name = "idx_loan_status_return_date", columnList = "status, return_date")
+})
 public class Loan extends BaseEntity {
 
     @DateTimeFormat(pattern = "yyyy-MM-dd")
@@ -25,29 +26,29 @@ public class Loan extends BaseEntity {
     @ManyToOne(optional = false)
     private User user;
 
-    @OneToOne(optional = false)
+    @ManyToOne(optional = false)
     private Book book;
 
-    @Transient
-    public LoanStatus getStatus() {
-        LocalDate today = LocalDate.now();
-
-        if (loanDate.isAfter(today)) {
-            return LoanStatus.RESERVED;
-        } else if (returnDate.isBefore(today)) {
-            return LoanStatus.RETURNED;
-        } else {
-            return LoanStatus.ACTIVE;
+    // Derived from the dates on every write; LoanStatusTransitions moves it on as days pass
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private LoanStatus status = LoanStatus.RESERVED;
+
+    @PrePersist
+    @PreUpdate
+    void deriveStatus() {
+        if (loanDate != null && returnDate != null) {
+            status = LoanStatus.of(loanDate, returnDate);
         }
     }
 
     @Transient
     public boolean isActive() {
-        return getStatus() == LoanStatus.ACTIVE;
+        return status == LoanStatus.ACTIVE;
     }
 
     @Transient
     public boolean isReserved() {
-        return getStatus() == LoanStatus.RESERVED;
+        return status == LoanStatus.RESERVED;
     }
 }
@@ -0,0 +1,44 @@
+package com.adriano.library.business.domain.entity;
+
+import com.adriano.library.business.domain.enums.HoldStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A user waiting for the next free copy of a book; HoldQueue serves the waiting holds of a book oldest first
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Data
+@Table(indexes = {
+        @Index(name = "idx_loan_hold_book_status", columnList = "book_id, status, requested_at"),
+        @Index(name = "idx_loan_hold_status_expires", columnList = "status, expires_on")
+})
+public class LoanHold extends BaseEntity {
+
+    @ManyToOne(optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Book book;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    // Still waiting after this day, the hold lapses
+    @Column(nullable = false)
+    private LocalDate expiresOn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private HoldStatus status = HoldStatus.WAITING;
+
+    // The loan the hold became once allocated
+    private Long loanId;
+}
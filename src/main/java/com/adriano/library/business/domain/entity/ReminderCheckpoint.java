@@ -0,0 +1,26 @@
+package com.adriano.library.business.domain.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Progress of one day's reminder run: users are mailed in id order, so a restarted run carries on after lastUserId
+@Entity
+@Data
+@NoArgsConstructor
+public class ReminderCheckpoint {
+
+    @Id
+    private LocalDate runDate;
+
+    private long lastUserId;
+    private int sent;
+    private boolean completed;
+
+    public ReminderCheckpoint(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+}
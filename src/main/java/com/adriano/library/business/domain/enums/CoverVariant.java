@@ -0,0 +1,40 @@
+package com.adriano.library.business.domain.enums;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Resized copies of a cover, stored next to it as books/<variant>/<content hash>.<ext>
+public enum CoverVariant {
+    THUMB(120),   // list rows
+    DETAIL(480);  // book form preview
+
+    private static final Pattern HASHED = Pattern.compile("(.*/)([0-9a-f]{64}\\.[a-z0-9]+)");
+    private static final Pattern VARIANT = Pattern.compile("(.*/)(?:thumb|detail)/([0-9a-f]{64}\\.[a-z0-9]+)");
+
+    private final int maxHeight;
+
+    CoverVariant(int maxHeight) {
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    public String directory() {
+        return name().toLowerCase();
+    }
+
+    // Path of this variant; covers stored before content-hash naming only have the original
+    public String of(String imagePath) {
+        if (imagePath == null) return null;
+        Matcher matcher = HASHED.matcher(imagePath);
+        return matcher.matches() ? matcher.group(1) + directory() + "/" + matcher.group(2) : imagePath;
+    }
+
+    // The original a variant path was derived from, or null if the path is not a variant
+    public static String originalOf(String variantPath) {
+        Matcher matcher = VARIANT.matcher(variantPath);
+        return matcher.matches() ? matcher.group(1) + matcher.group(2) : null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.adriano.library.business.domain.enums;
+
+public enum HoldStatus {
+    WAITING,    // In the book's queue
+    ALLOCATED,  // A freed copy was lent to the holder
+    EXPIRED     // Lapsed before a copy came free
+}
@@ -1,8 +1,21 @@
 package com.adriano.library.business.domain.enums;
 
+import java.time.LocalDate;
+
 public enum LoanStatus {
     RESERVED,  // Loan date is in the future
     ACTIVE,    // Loan is currently active (between loan date and return date)
-    RETURNED   // Return date has passed
-}
+    RETURNED;  // Return date has passed
 
+    public static LoanStatus of(LocalDate loanDate, LocalDate returnDate) {
+        LocalDate today = LocalDate.now();
+
+        if (loanDate.isAfter(today)) {
+            return RESERVED;
+        } else if (returnDate.isBefore(today)) {
+            return RETURNED;
+        } else {
+            return ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.adriano.library.business.domain.event;
+
+import com.adriano.library.business.domain.entity.Book;
+
+// Saved, edited, or its loanedCopies recounted
+public record BookChanged(Long id, String title, Integer totalCopies, Integer loanedCopies) implements DomainEvent {
+
+    public static BookChanged of(Book book) {
+        return new BookChanged(book.getId(), book.getTitle(), book.getTotalCopies(), book.getLoanedCopies());
+    }
+}
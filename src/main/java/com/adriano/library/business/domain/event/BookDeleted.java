@@ -0,0 +1,5 @@
+package com.adriano.library.business.domain.event;
+
+// Its authors, publishers and loans were deleted with it
+public record BookDeleted(Long id) implements DomainEvent {
+}
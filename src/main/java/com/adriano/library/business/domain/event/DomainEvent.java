@@ -0,0 +1,5 @@
+package com.adriano.library.business.domain.event;
+
+// A committed change to the catalog, loans or users, published by the services' after-hooks
+public sealed interface DomainEvent permits BookChanged, BookDeleted, LoanCreated, LoanUpdated, LoanDeleted, UserDeleted {
+}
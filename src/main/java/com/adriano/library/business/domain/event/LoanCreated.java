@@ -0,0 +1,20 @@
+package com.adriano.library.business.domain.event;
+
+import com.adriano.library.business.domain.dto.LoanFacts;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.enums.LoanStatus;
+
+import java.time.LocalDate;
+
+public record LoanCreated(Long id, Long bookId, Long userId, LoanStatus status, LocalDate loanDate, LocalDate returnDate)
+        implements DomainEvent {
+
+    public static LoanCreated of(Loan loan) {
+        return new LoanCreated(loan.getId(), loan.getBook().getId(), loan.getUser().getId(), loan.getStatus(),
+                loan.getLoanDate(), loan.getReturnDate());
+    }
+
+    public LoanFacts facts() {
+        return new LoanFacts(id, bookId, userId, status);
+    }
+}
@@ -0,0 +1,4 @@
+package com.adriano.library.business.domain.event;
+
+public record LoanDeleted(Long id) implements DomainEvent {
+}
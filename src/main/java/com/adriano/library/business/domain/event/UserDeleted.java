@@ -0,0 +1,5 @@
+package com.adriano.library.business.domain.event;
+
+// Their loans were deleted with them
+public record UserDeleted(Long id) implements DomainEvent {
+}
@@ -1,15 +1,33 @@
 package com.adriano.library.business.logic.service;
 
+import com.adriano.library.business.domain.dto.AuthorRow;
 import com.adriano.library.business.domain.entity.Author;
 import com.adriano.library.business.persistence.repository.AuthorRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Service
 public class AuthorService extends BaseService<Author, Long> {
 
-    public AuthorService(AuthorRepository repository) {
+    private final AuthorRepository authorRepository;
+    private final CatalogSearchService catalogSearch;
+    private final CatalogCache catalogCache;
+
+    public AuthorService(AuthorRepository repository, CatalogSearchService catalogSearch, CatalogCache catalogCache) {
         super(repository);
+        this.authorRepository = repository;
+        this.catalogSearch = catalogSearch;
+        this.catalogCache = catalogCache;
+    }
+
+    public Window<AuthorRow> findRows(Long cursor, int size, Sort sort) {
+        return authorRepository.findRows(cursor, size, sort);
     }
 
     @Override
@@ -29,5 +47,64 @@ public class AuthorService extends BaseService<Author, Long> {
     public void deleteById(Long id) {
         super.deleteById(id);
     }
-}
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveAll(Collection<Author> entities) {
+        super.saveAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateAll(Map<Long, Author> entities) {
+        super.updateAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteAllById(Collection<Long> ids) {
+        super.deleteAllById(ids);
+    }
+
+    // The book this author belonged to before the change, whose cached authors list is now wrong
+
+    @Override
+    public void beforeUpdate(Long id, Author entity) {
+        evictPreviousBook(id);
+    }
+
+    @Override
+    public void beforeDelete(Long id) {
+        evictPreviousBook(id);
+    }
+
+    @Override
+    public void afterSave(Author entity) {
+        TransactionCallbacks.afterCommit(() -> {
+            catalogSearch.authorChanged(entity);
+            catalogCache.authorsChanged(bookIdOf(entity));
+        });
+    }
+
+    @Override
+    public void afterUpdate(Author entity) {
+        TransactionCallbacks.afterCommit(() -> {
+            catalogSearch.authorChanged(entity);
+            catalogCache.authorsChanged(bookIdOf(entity));
+        });
+    }
+
+    @Override
+    public void afterDelete(Long id) {
+        TransactionCallbacks.afterCommit(() -> catalogSearch.authorDeleted(id));
+    }
+
+    private void evictPreviousBook(Long id) {
+        authorRepository.findById(id).map(this::bookIdOf)
+                .ifPresent(bookId -> TransactionCallbacks.afterCommit(() -> catalogCache.authorsChanged(bookId)));
+    }
+
+    private Long bookIdOf(Author author) {
+        return author.getBook() != null ? author.getBook().getId() : null;
+    }
+}
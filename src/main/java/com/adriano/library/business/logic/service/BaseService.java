@@ -2,49 +2,269 @@ package com.adriano.library.business.logic.service;
 
 import com.adriano.library.business.domain.entity.BaseEntity;
 import com.adriano.library.business.persistence.repository.BaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 
 public abstract class BaseService<T extends BaseEntity, ID> implements CrudHooks<T, ID> {
 
     protected final BaseRepository<T, ID> baseRepository;
+    private final String entityName;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private DataVersions dataVersions;
+    // Meters by operation, phase and outcome, so the hot path skips the registry lookup
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+    // Subclass counters by name and tags
+    private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    private record MeterKey(String operation, String phase, String outcome) {
+    }
 
     public BaseService(BaseRepository<T, ID> baseRepository) {
         this.baseRepository = baseRepository;
+        // BookService -> "book", used as the entity tag of the CRUD metrics
+        this.entityName = ClassUtils.getUserClass(getClass()).getSimpleName().replaceFirst("Service$", "").toLowerCase();
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        timers.clear();
+        rowCounters.clear();
+        counters.clear();
+    }
+
+    // Registered on first use, then reused like the CRUD meters
+    protected Counter counter(String name, String... tags) {
+        List<String> key = new ArrayList<>(tags.length + 1);
+        key.add(name);
+        key.addAll(Arrays.asList(tags));
+        return counters.computeIfAbsent(key, k -> Counter.builder(name).tags(tags).register(meterRegistry));
+    }
+
+    @Autowired(required = false)
+    public void setDataVersions(DataVersions dataVersions) {
+        this.dataVersions = dataVersions;
     }
 
     public List<T> findAll() {
-        return baseRepository.findAll();
+        return timed("findAll", () -> baseRepository.findAll());
+    }
+
+    // Keyset page of up to 'size' rows following the cursor row (null = first page)
+    public Window<T> findWindow(ID cursor, int size, Sort sort) {
+        return findWindow(null, cursor, size, sort);
+    }
+
+    protected Window<T> findWindow(Specification<T> filter, ID cursor, int size, Sort sort) {
+        Sort order = withIdTieBreaker(sort);
+        ScrollPosition position = cursor == null ? ScrollPosition.keyset() : baseRepository.findById(cursor)
+                .map(row -> positionAfter(row, order))
+                .orElse(ScrollPosition.keyset());
+        Specification<T> spec = filter != null ? filter : (root, query, cb) -> null;
+        return baseRepository.findBy(spec, (FluentQuery.FetchableFluentQuery<T> query) ->
+                query.sortBy(order).limit(size).scroll(position));
     }
 
+    // Seek predicates need a unique order, so ties on the sort column are broken by id
+    private static Sort withIdTieBreaker(Sort sort) {
+        Sort.Order primary = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (primary.getProperty().equals("id")) {
+            return Sort.by(primary);
+        }
+        return Sort.by(primary, new Sort.Order(primary.getDirection(), "id"));
+    }
+
+    private ScrollPosition positionAfter(T row, Sort order) {
+        BeanWrapper wrapper = new BeanWrapperImpl(row);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        order.forEach(o -> keys.put(o.getProperty(), wrapper.getPropertyValue(o.getProperty())));
+        return ScrollPosition.forward(keys);
+    }
+
+    // Each operation is timed as a whole and per phase: before hook, repository call, after hook
+
     public Optional<T> findById(ID id) {
-        beforeRead(id);
-        Optional<T> entity = baseRepository.findById(id);
-        entity.ifPresent(this::afterRead);
-        return entity;
+        return timed("read", () -> {
+            timed("read", "before", () -> beforeRead(id));
+            Optional<T> entity = timed("read", "repository", () -> baseRepository.findById(id));
+            entity.ifPresent(found -> timed("read", "after", () -> afterRead(found)));
+            return entity;
+        });
     }
 
     public void save(T entity) {
-        beforeSave(entity);
-        T saved = baseRepository.save(entity);
-        afterSave(saved);
+        timed("save", () -> {
+            timed("save", "before", () -> beforeSave(entity));
+            T saved = timed("save", "repository", () -> baseRepository.save(entity));
+            timed("save", "after", () -> afterSave(saved));
+            versionChanged(false);
+        });
     }
 
     public void update(ID id, T newEntity) {
-        beforeUpdate(id, newEntity);
-        baseRepository.findById(id).map(existing -> {
-            newEntity.setId(existing.getId()); // ensure ID stays the same
-            T updated = baseRepository.save(newEntity);
-            afterUpdate(updated);
-            return updated;
+        timed("update", () -> {
+            timed("update", "before", () -> beforeUpdate(id, newEntity));
+            Optional<T> updated = timed("update", "repository", () -> baseRepository.findById(id).map(existing -> {
+                newEntity.setId(existing.getId()); // ensure ID stays the same
+                // newEntity keeps the version its caller read, so a write based on an older row fails the optimistic lock
+                return baseRepository.save(newEntity);
+            }));
+            updated.ifPresent(entity -> {
+                timed("update", "after", () -> afterUpdate(entity));
+                versionChanged(false);
+            });
         });
     }
 
     public void deleteById(ID id) {
-        beforeDelete(id);
-        baseRepository.deleteById(id);
-        afterDelete(id);
+        timed("delete", () -> {
+            timed("delete", "before", () -> beforeDelete(id));
+            timed("delete", "repository", () -> baseRepository.deleteById(id));
+            timed("delete", "after", () -> afterDelete(id));
+            versionChanged(true);
+        });
+    }
+
+    // Batch variants: one transaction and one flush, so Hibernate sends the statements as JDBC batches
+
+    @Transactional
+    public void saveAll(Collection<T> entities) {
+        List<T> batch = new ArrayList<>(entities);
+        timed("saveAll", () -> {
+            timed("saveAll", "before", () -> beforeSaveAll(batch));
+            List<T> saved = timed("saveAll", "repository", () -> {
+                List<T> result = baseRepository.saveAll(batch);
+                baseRepository.flush();
+                return result;
+            });
+            timed("saveAll", "after", () -> afterSaveAll(saved));
+            versionChanged(false);
+        });
+        countRows("saveAll", batch.size());
+    }
+
+    // Keyed by id; ids that no longer exist are skipped, as in update
+    @Transactional
+    public void updateAll(Map<ID, T> entities) {
+        timed("updateAll", () -> {
+            timed("updateAll", "before", () -> beforeUpdateAll(entities));
+            List<T> updated = timed("updateAll", "repository", () -> {
+                List<T> batch = new ArrayList<>();
+                for (T existing : baseRepository.findAllById(entities.keySet())) {
+                    T newEntity = entities.get(existing.getId());
+                    newEntity.setId(existing.getId());
+                    batch.add(newEntity);
+                }
+                List<T> result = baseRepository.saveAll(batch);
+                baseRepository.flush();
+                return result;
+            });
+            timed("updateAll", "after", () -> afterUpdateAll(updated));
+            versionChanged(false);
+        });
+        countRows("updateAll", entities.size());
+    }
+
+    @Transactional
+    public void deleteAllById(Collection<ID> ids) {
+        timed("deleteAll", () -> {
+            timed("deleteAll", "before", () -> beforeDeleteAll(ids));
+            // One select for the rows, then batched deletes (cascades still apply)
+            timed("deleteAll", "repository", () -> {
+                baseRepository.deleteAll(baseRepository.findAllById(ids));
+                baseRepository.flush();
+            });
+            timed("deleteAll", "after", () -> afterDeleteAll(ids));
+            versionChanged(true);
+        });
+        countRows("deleteAll", ids.size());
+    }
+
+    // Moves this type's DataVersions counter on once the write commits
+    private void versionChanged(boolean deleted) {
+        if (dataVersions == null) return;
+        if (deleted) dataVersions.deleted(entityName);
+        else dataVersions.changed(entityName);
+    }
+
+    // Metrics: library.crud.operation and library.crud.phase timers (their counts double as
+    // call counters), tagged by entity, operation, phase and outcome
+
+    private void timed(String operation, Runnable action) {
+        timed(operation, null, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <R> R timed(String operation, Supplier<R> action) {
+        return timed(operation, null, action);
+    }
+
+    private void timed(String operation, String phase, Runnable action) {
+        timed(operation, phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <R> R timed(String operation, String phase, Supplier<R> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            R result = action.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (SecurityException | AccessDeniedException e) {
+            outcome = "denied";
+            throw e;
+        } finally {
+            timers.computeIfAbsent(new MeterKey(operation, phase, outcome), this::timer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MeterKey key) {
+        Tags tags = Tags.of("entity", entityName, "operation", key.operation(), "outcome", key.outcome());
+        return Timer.builder(key.phase() == null ? "library.crud.operation" : "library.crud.phase")
+                .tags(key.phase() == null ? tags : tags.and("phase", key.phase()))
+                .register(meterRegistry);
+    }
+
+    private void countRows(String operation, int rows) {
+        rowCounters.computeIfAbsent(operation, op -> Counter.builder("library.crud.rows")
+                        .tags("entity", entityName, "operation", op)
+                        .register(meterRegistry))
+                .increment(rows);
     }
 }
\ No newline at end of file
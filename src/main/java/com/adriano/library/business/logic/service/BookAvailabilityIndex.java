@@ -0,0 +1,170 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.LoanInterval;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory per-book index of loan date ranges. Answers "how many copies of book B are
+ * out at the busiest day between D1 and D2" without touching the database.
+ * Loaded once from {@link LoanRepository} and kept current by {@link LoanService} hooks;
+ * changes made inside a transaction are undone if it rolls back.
+ */
+@Service
+public class BookAvailabilityIndex {
+
+    private final LoanRepository loanRepository;
+    private final Map<Long, LoanIntervalTree> treesByBook = new HashMap<>();
+    private final Map<Long, LoanInterval> intervalsByLoan = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookAvailabilityIndex(LoanRepository loanRepository) {
+        this.loanRepository = loanRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            treesByBook.clear();
+            intervalsByLoan.clear();
+            loanRepository.findAllIntervals().forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Peak number of loans of the book held on a single day within [from, to]
+    public int peakConcurrentLoans(Long bookId, LocalDate from, LocalDate to, Long excludeLoanId) {
+        long windowStart = from.toEpochDay();
+        long windowEnd = to.toEpochDay();
+        long exclude = excludeLoanId != null ? excludeLoanId : Long.MIN_VALUE;
+
+        lock.readLock().lock();
+        try {
+            LoanIntervalTree tree = treesByBook.get(bookId);
+            if (tree == null) return 0;
+
+            Sweep sweep = new Sweep(windowStart, windowEnd, exclude);
+            tree.forEachOverlapping(windowStart, windowEnd, sweep);
+            return sweep.peak();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int loansOn(Long bookId, LocalDate day) {
+        return peakConcurrentLoans(bookId, day, day, null);
+    }
+
+    public Long bookOf(Long loanId) {
+        lock.readLock().lock();
+        try {
+            LoanInterval interval = intervalsByLoan.get(loanId);
+            return interval != null ? interval.bookId() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Adds or replaces the loan's interval, returns the book it was previously indexed under
+    public Long put(Loan loan) {
+        LoanInterval interval = new LoanInterval(
+                loan.getId(), loan.getBook().getId(), loan.getLoanDate(), loan.getReturnDate());
+        LoanInterval previous;
+        lock.writeLock().lock();
+        try {
+            previous = delete(loan.getId());
+            insert(interval);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionCallbacks.afterRollback(() -> restore(interval.loanId(), previous));
+        return previous != null ? previous.bookId() : null;
+    }
+
+    // Removes the loan's interval, returns the book it was indexed under
+    public Long remove(Long loanId) {
+        LoanInterval previous;
+        lock.writeLock().lock();
+        try {
+            previous = delete(loanId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionCallbacks.afterRollback(() -> restore(loanId, previous));
+        return previous != null ? previous.bookId() : null;
+    }
+
+    private void restore(Long loanId, LoanInterval previous) {
+        lock.writeLock().lock();
+        try {
+            delete(loanId);
+            if (previous != null) insert(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sweep line over the overlapping intervals clipped to the window. Events are encoded as
+     * day * 2 + kind so that, on the same day, ends (0) sort before starts (1).
+     */
+    private static final class Sweep implements LoanIntervalTree.IntervalConsumer {
+        private final long windowStart;
+        private final long windowEnd;
+        private final long exclude;
+        private long[] events = new long[16];
+        private int count;
+
+        Sweep(long windowStart, long windowEnd, long exclude) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.exclude = exclude;
+        }
+
+        @Override
+        public void accept(long id, long start, long end) {
+            if (id == exclude) return;
+            if (count + 2 > events.length) events = Arrays.copyOf(events, events.length * 2);
+            events[count++] = Math.max(start, windowStart) * 2 + 1;
+            events[count++] = (Math.min(end, windowEnd) + 1) * 2;
+        }
+
+        int peak() {
+            Arrays.sort(events, 0, count);
+            int current = 0;
+            int peak = 0;
+            for (int i = 0; i < count; i++) {
+                current += (events[i] & 1) == 1 ? 1 : -1;
+                peak = Math.max(peak, current);
+            }
+            return peak;
+        }
+    }
+
+    private void insert(LoanInterval interval) {
+        treesByBook.computeIfAbsent(interval.bookId(), id -> new LoanIntervalTree())
+                .insert(interval.loanId(), interval.loanDate().toEpochDay(), interval.returnDate().toEpochDay());
+        intervalsByLoan.put(interval.loanId(), interval);
+    }
+
+    private LoanInterval delete(Long loanId) {
+        LoanInterval previous = intervalsByLoan.remove(loanId);
+        if (previous == null) return null;
+        LoanIntervalTree tree = treesByBook.get(previous.bookId());
+        tree.remove(previous.loanId(), previous.loanDate().toEpochDay());
+        if (tree.size() == 0) treesByBook.remove(previous.bookId());
+        return previous;
+    }
+}
@@ -1,15 +1,54 @@
 package com.adriano.library.business.logic.service;
 
+import com.adriano.library.business.domain.dto.BookRow;
+import com.adriano.library.business.domain.dto.Suggestion;
 import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.event.BookChanged;
+import com.adriano.library.business.domain.event.BookDeleted;
+import com.adriano.library.business.persistence.repository.BaseRepository;
 import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class BookService extends BaseService<Book, Long> {
 
-    public BookService(BookRepository repository) {
+    private final BookRepository bookRepository;
+    private final CatalogSearchService catalogSearch;
+    private final DomainEventBus events;
+
+    public BookService(BookRepository repository, CatalogSearchService catalogSearch, DomainEventBus events) {
         super(repository);
+        this.bookRepository = repository;
+        this.catalogSearch = catalogSearch;
+        this.events = events;
+    }
+
+    // List view rows, fetched without loading entities
+    public Window<BookRow> findRows(Long cursor, int size, Sort sort) {
+        return bookRepository.findRows(cursor, size, sort);
+    }
+
+    // Loan form picker: titles starting with the query, or ISBNs when it starts with a digit
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = query.strip();
+        if (prefix.isEmpty()) return List.of();
+        String pattern = BaseRepository.prefixPattern(prefix);
+        Pageable page = PageRequest.of(0, limit);
+        return Character.isDigit(prefix.charAt(0))
+                ? bookRepository.suggestByIsbn(pattern, page)
+                : bookRepository.suggestByTitle(pattern, page);
     }
 
     @Override
@@ -18,8 +57,10 @@ public class BookService extends BaseService<Book, Long> {
         super.save(entity);
     }
 
+    // One transaction, so beforeUpdate reads loanedCopies into the entity that the merge compares with
     @Override
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public void update(Long id, Book entity) {
         super.update(id, entity);
     }
@@ -30,6 +71,24 @@ public class BookService extends BaseService<Book, Long> {
         super.deleteById(id);
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveAll(Collection<Book> entities) {
+        super.saveAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateAll(Map<Long, Book> entities) {
+        super.updateAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteAllById(Collection<Long> ids) {
+        super.deleteAllById(ids);
+    }
+
     @Override
     public void beforeSave(Book entity) {
         // Initialize loanedCopies to 0 for new books
@@ -38,6 +97,17 @@ public class BookService extends BaseService<Book, Long> {
         }
     }
 
+    @Override
+    public void beforeUpdateAll(Map<Long, Book> entities) {
+        // Same as beforeUpdate, with one lookup for the whole batch
+        List<Long> ids = entities.entrySet().stream()
+                .filter(e -> e.getValue().getLoanedCopies() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        bookRepository.findAllById(ids).forEach(existing ->
+                entities.get(existing.getId()).setLoanedCopies(existing.getLoanedCopies()));
+    }
+
     @Override
     public void beforeUpdate(Long id, Book entity) {
         // Preserve loanedCopies on update (it's managed by LoanService)
@@ -47,5 +117,24 @@ public class BookService extends BaseService<Book, Long> {
             );
         }
     }
-}
 
+    // The search index follows committed changes right away; other consumers get events
+
+    @Override
+    public void afterSave(Book entity) {
+        TransactionCallbacks.afterCommit(() -> catalogSearch.bookChanged(entity));
+        events.publish(BookChanged.of(entity));
+    }
+
+    @Override
+    public void afterUpdate(Book entity) {
+        TransactionCallbacks.afterCommit(() -> catalogSearch.bookChanged(entity));
+        events.publish(BookChanged.of(entity));
+    }
+
+    @Override
+    public void afterDelete(Long id) {
+        TransactionCallbacks.afterCommit(() -> catalogSearch.bookDeleted(id));
+        events.publish(new BookDeleted(id));
+    }
+}
@@ -0,0 +1,64 @@
+package com.adriano.library.business.logic.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed on book id: bookings of the same book are serialized while
+ * different books mostly land on different stripes and proceed in parallel.
+ */
+@Component
+public class BookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+
+    public BookingLocks(@Value("${library.booking.lock-stripes:64}") int stripes,
+                        @Value("${library.booking.lock-timeout:5s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeout = timeout;
+    }
+
+    public <T> T withBooks(Collection<Long> bookIds, Supplier<T> action) {
+        // Lock stripes in index order so two multi-book operations cannot deadlock
+        int[] indexes = bookIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Book is busy, please try again");
+                }
+                locked++;
+            }
+            return action.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for book lock", e);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(Long bookId) {
+        long h = bookId * 0x9E3779B97F4A7C15L; // spread sequential ids
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) stripes.length);
+    }
+}
@@ -0,0 +1,63 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evictions from the catalog's second-level cache that Hibernate does not make by itself, and
+ * a library.cache.hit.ratio gauge per region. Entity writes through the services update their
+ * cached copies at commit, but Book.authors and Book.publishers are mapped by the other side,
+ * so moving or deleting an author or publisher leaves the book's cached list as it was.
+ */
+@Service
+public class CatalogCache {
+
+    static final List<String> REGIONS = List.of("book", "author", "publisher", "book.authors", "book.publishers",
+            "default-query-results-region");
+
+    private static final String AUTHORS = Book.class.getName() + ".authors";
+    private static final String PUBLISHERS = Book.class.getName() + ".publishers";
+
+    private final Cache cache;
+
+    public CatalogCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        Statistics statistics = sessionFactory.getStatistics();
+        REGIONS.forEach(region -> Gauge.builder("library.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                .description("Second-level cache hits over lookups since startup")
+                .tag("region", region)
+                .register(meterRegistry));
+    }
+
+    public void authorsChanged(Long bookId) {
+        if (bookId != null) cache.evictCollectionData(AUTHORS, bookId);
+    }
+
+    public void publishersChanged(Long bookId) {
+        if (bookId != null) cache.evictCollectionData(PUBLISHERS, bookId);
+    }
+
+    // Someone else wrote these books (optimistic conflict), so the cached copies are behind
+    public void booksChanged(Collection<Long> bookIds) {
+        bookIds.stream().filter(Objects::nonNull).forEach(id -> cache.evictEntityData(Book.class, id));
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) return Double.NaN; // cache disabled
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / lookups;
+    }
+}
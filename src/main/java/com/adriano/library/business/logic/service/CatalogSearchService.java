@@ -0,0 +1,266 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.SearchHit;
+import com.adriano.library.business.domain.entity.Author;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Publisher;
+import com.adriano.library.business.persistence.repository.AuthorRepository;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.PublisherRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side search over books (title, ISBN, author and publisher names), authors and
+ * publishers. Built from the repositories at startup and kept current by the
+ * BookService/AuthorService/PublisherService hooks; queries never touch the database.
+ */
+@Service
+public class CatalogSearchService {
+
+    public static final Set<String> TYPES = Set.of("book", "author", "publisher");
+
+    private record BookEntry(Long id, String title, String isbn) {
+    }
+
+    private record NameEntry(Long id, String name, Long bookId) {
+    }
+
+    // Authors or publishers by id (read by searches) and grouped by book (touched by writers only)
+    private static final class Names {
+
+        private final Map<Long, NameEntry> byId = new ConcurrentHashMap<>();
+        private final Map<Long, List<NameEntry>> byBook = new HashMap<>();
+
+        NameEntry get(Long id) {
+            return byId.get(id);
+        }
+
+        List<NameEntry> ofBook(Long bookId) {
+            return byBook.getOrDefault(bookId, List.of());
+        }
+
+        Collection<NameEntry> all() {
+            return byId.values();
+        }
+
+        NameEntry put(NameEntry entry) {
+            NameEntry previous = remove(entry.id());
+            byId.put(entry.id(), entry);
+            if (entry.bookId() != null) byBook.computeIfAbsent(entry.bookId(), book -> new ArrayList<>()).add(entry);
+            return previous;
+        }
+
+        NameEntry remove(Long id) {
+            NameEntry previous = byId.remove(id);
+            if (previous != null && previous.bookId() != null) {
+                List<NameEntry> ofBook = byBook.get(previous.bookId());
+                ofBook.removeIf(e -> e.id().equals(id));
+                if (ofBook.isEmpty()) byBook.remove(previous.bookId());
+            }
+            return previous;
+        }
+
+        List<NameEntry> removeBook(Long bookId) {
+            List<NameEntry> removed = byBook.remove(bookId);
+            if (removed == null) return List.of();
+            removed.forEach(e -> byId.remove(e.id()));
+            return removed;
+        }
+
+        void clear() {
+            byId.clear();
+            byBook.clear();
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Long, BookEntry> books = new ConcurrentHashMap<>();
+    private final Names authors = new Names();
+    private final Names publishers = new Names();
+    // Serializes writers; a lock rather than synchronized, as rebuild() queries while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CatalogSearchService(BookRepository bookRepository, AuthorRepository authorRepository,
+                                PublisherRepository publisherRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.lock();
+        try {
+            index.clear();
+            books.clear();
+            authors.clear();
+            publishers.clear();
+            bookRepository.findAll().forEach(b -> books.put(b.getId(), new BookEntry(b.getId(), b.getTitle(), b.getIsbn())));
+            authorRepository.findAll().forEach(a -> authors.put(nameEntry(a.getId(), a.getName(), a.getBook())));
+            publisherRepository.findAll().forEach(p -> publishers.put(nameEntry(p.getId(), p.getName(), p.getBook())));
+
+            books.keySet().forEach(this::indexBook);
+            authors.all().forEach(a -> indexName("author", a));
+            publishers.all().forEach(p -> indexName("publisher", p));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SearchHit> search(String query, String type, int limit) {
+        String prefix = type != null && TYPES.contains(type) ? type + ":" : "";
+        return index.search(query, limit, key -> key.startsWith(prefix)).stream()
+                .map(match -> toHit(match.key(), match.score()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Hooks
+
+    public void bookChanged(Book book) {
+        lock.lock();
+        try {
+            books.put(book.getId(), new BookEntry(book.getId(), book.getTitle(), book.getIsbn()));
+            indexBook(book.getId());
+            // Author and publisher documents show the book title
+            authors.ofBook(book.getId()).forEach(a -> indexName("author", a));
+            publishers.ofBook(book.getId()).forEach(p -> indexName("publisher", p));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void bookDeleted(Long id) {
+        lock.lock();
+        try {
+            books.remove(id);
+            index.remove("book:" + id);
+            // Authors and publishers are removed with their book (ON DELETE CASCADE)
+            authors.removeBook(id).forEach(a -> index.remove("author:" + a.id()));
+            publishers.removeBook(id).forEach(p -> index.remove("publisher:" + p.id()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void authorChanged(Author author) {
+        lock.lock();
+        try {
+            NameEntry entry = nameEntry(author.getId(), author.getName(), author.getBook());
+            NameEntry previous = authors.put(entry);
+            indexName("author", entry);
+            reindexBooks(previous, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void authorDeleted(Long id) {
+        lock.lock();
+        try {
+            NameEntry previous = authors.remove(id);
+            index.remove("author:" + id);
+            reindexBooks(previous, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void publisherChanged(Publisher publisher) {
+        lock.lock();
+        try {
+            NameEntry entry = nameEntry(publisher.getId(), publisher.getName(), publisher.getBook());
+            NameEntry previous = publishers.put(entry);
+            indexName("publisher", entry);
+            reindexBooks(previous, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void publisherDeleted(Long id) {
+        lock.lock();
+        try {
+            NameEntry previous = publishers.remove(id);
+            index.remove("publisher:" + id);
+            reindexBooks(previous, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reindexBooks(NameEntry previous, NameEntry current) {
+        if (previous != null && previous.bookId() != null) indexBook(previous.bookId());
+        if (current != null && current.bookId() != null) indexBook(current.bookId());
+    }
+
+    private void indexBook(Long bookId) {
+        BookEntry book = books.get(bookId);
+        if (book == null) return;
+        Map<String, Double> fields = new LinkedHashMap<>();
+        fields.put(book.title(), 3.0);
+        if (book.isbn() != null) {
+            fields.put(book.isbn(), 3.0);
+            fields.put(book.isbn().replaceAll("[^0-9Xx]", ""), 3.0); // ISBN typed without dashes
+        }
+        fields.put(namesOf(authors, bookId), 2.0);
+        fields.put(namesOf(publishers, bookId), 1.0);
+        index.put("book:" + bookId, fields);
+    }
+
+    private void indexName(String type, NameEntry entry) {
+        Map<String, Double> fields = new LinkedHashMap<>();
+        fields.put(entry.name(), 3.0);
+        BookEntry book = entry.bookId() != null ? books.get(entry.bookId()) : null;
+        if (book != null) fields.put(book.title(), 1.0);
+        index.put(type + ":" + entry.id(), fields);
+    }
+
+    private static String namesOf(Names names, Long bookId) {
+        return names.ofBook(bookId).stream()
+                .map(NameEntry::name)
+                .collect(Collectors.joining(" "));
+    }
+
+    private static NameEntry nameEntry(Long id, String name, Book book) {
+        return new NameEntry(id, name, book != null ? book.getId() : null);
+    }
+
+    private SearchHit toHit(String key, double score) {
+        int colon = key.indexOf(':');
+        String type = key.substring(0, colon);
+        Long id = Long.valueOf(key.substring(colon + 1));
+        return switch (type) {
+            case "book" -> {
+                BookEntry book = books.get(id);
+                yield book == null ? null : new SearchHit(type, id, book.title(), "ISBN: " + book.isbn(), score);
+            }
+            case "author" -> nameHit(type, authors.get(id), score);
+            case "publisher" -> nameHit(type, publishers.get(id), score);
+            default -> null;
+        };
+    }
+
+    private SearchHit nameHit(String type, NameEntry entry, double score) {
+        if (entry == null) return null;
+        BookEntry book = entry.bookId() != null ? books.get(entry.bookId()) : null;
+        return new SearchHit(type, entry.id(), entry.name(), book != null ? book.title() : "", score);
+    }
+}
@@ -0,0 +1,104 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.enums.CoverVariant;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Book covers on disk, named by the SHA-256 of their content: the upload is streamed to a temp
+ * file while it is hashed, then moved to its final name unless an identical cover is already
+ * stored. Resized variants are generated in the background by {@link CoverThumbnails}.
+ */
+@Service
+public class CoverImageStore {
+
+    public static final String URL_PREFIX = "/uploads/books/";
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/png", "png",
+            "image/jpeg", "jpg",
+            "image/jpg", "jpg",
+            "image/webp", "webp",
+            "image/gif", "gif");
+
+    private final Path root;
+    private final BookRepository bookRepository;
+    private final CoverThumbnails thumbnails;
+
+    public CoverImageStore(@Value("${library.uploads.dir:src/main/uploads}") Path uploadDir,
+                           BookRepository bookRepository, CoverThumbnails thumbnails) {
+        this.root = uploadDir.resolve("books").toAbsolutePath().normalize();
+        this.bookRepository = bookRepository;
+        this.thumbnails = thumbnails;
+    }
+
+    public boolean accepts(MultipartFile file) {
+        return extensionOf(file) != null;
+    }
+
+    // Returns the imagePath of the stored cover
+    public String store(MultipartFile file) throws IOException {
+        String contentType = file.getContentType();
+        String ext = extensionOf(file);
+        if (ext == null) {
+            throw new IOException("Unsupported file type: " + contentType);
+        }
+
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String filename = HexFormat.of().formatHex(digest.digest()) + "." + ext;
+            Path destination = root.resolve(filename);
+            if (!Files.exists(destination)) {
+                Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+            }
+            thumbnails.generate(destination);
+            return URL_PREFIX + filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Deletes a replaced cover and its variants once no book points at it anymore
+    public void releaseIfUnused(String imagePath) throws IOException {
+        if (imagePath == null || !imagePath.startsWith(URL_PREFIX) || bookRepository.existsByImagePath(imagePath)) {
+            return;
+        }
+        Path original = root.resolve(imagePath.substring(URL_PREFIX.length())).normalize();
+        if (!original.getParent().equals(root)) return;
+        Files.deleteIfExists(original);
+        for (CoverVariant variant : CoverVariant.values()) {
+            Files.deleteIfExists(root.resolve(variant.directory()).resolve(original.getFileName()));
+        }
+    }
+
+    private static String extensionOf(MultipartFile file) {
+        String contentType = file.getContentType();
+        return contentType != null ? EXTENSIONS.get(contentType.toLowerCase()) : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
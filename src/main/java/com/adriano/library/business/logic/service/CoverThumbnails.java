@@ -0,0 +1,91 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.enums.CoverVariant;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Writes the {@link CoverVariant}s of a stored cover off the request thread. Until a variant
+ * exists (or when the format can't be decoded, e.g. WebP), the original is served in its place.
+ */
+@Component
+public class CoverThumbnails {
+
+    @Async
+    public void generate(Path original) {
+        String filename = original.getFileName().toString();
+        String format = filename.substring(filename.lastIndexOf('.') + 1);
+        try {
+            for (CoverVariant variant : CoverVariant.values()) {
+                Path target = original.resolveSibling(variant.directory()).resolve(filename);
+                if (Files.exists(target)) continue; // same content, already resized
+                BufferedImage image = read(original, variant.getMaxHeight());
+                if (image == null) return;
+                write(resize(image, variant.getMaxHeight(), !format.equals("jpg")), format, target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not resize " + filename, e);
+        }
+    }
+
+    private static BufferedImage read(Path file, int maxHeight) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Decode only every n-th row and column of covers far larger than the variant
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getHeight(0) / (maxHeight * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxHeight, boolean alpha) {
+        double scale = Math.min(1.0, (double) maxHeight / source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Written aside and moved into place, so a half-written variant is never served
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "resize-", ".tmp");
+        try {
+            if (ImageIO.write(image, format, temp.toFile())) {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
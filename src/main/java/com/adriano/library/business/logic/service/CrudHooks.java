@@ -1,5 +1,9 @@
 package com.adriano.library.business.logic.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface CrudHooks<T, ID> {
     // Default no-op implementations of hooks (override only if needed)
 
@@ -34,4 +38,30 @@ public interface CrudHooks<T, ID> {
     default void afterDelete(ID id) {
 
     }
-}
\ No newline at end of file
+
+    // Batch hooks: by default the single-entity hook runs per element; override to do the work once per batch
+
+    default void beforeSaveAll(List<T> entities) {
+        entities.forEach(this::beforeSave);
+    }
+
+    default void afterSaveAll(List<T> entities) {
+        entities.forEach(this::afterSave);
+    }
+
+    default void beforeUpdateAll(Map<ID, T> entities) {
+        entities.forEach(this::beforeUpdate);
+    }
+
+    default void afterUpdateAll(List<T> entities) {
+        entities.forEach(this::afterUpdate);
+    }
+
+    default void beforeDeleteAll(Collection<ID> ids) {
+        ids.forEach(this::beforeDelete);
+    }
+
+    default void afterDeleteAll(Collection<ID> ids) {
+        ids.forEach(this::afterDelete);
+    }
+}
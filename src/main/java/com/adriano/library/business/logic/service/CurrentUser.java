@@ -0,0 +1,53 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.UserAccount;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Who is calling. Id and role come straight from a {@link LibraryUserDetails} principal;
+ * other principals are resolved through {@link UserAccountCache} at most once per request.
+ */
+@Component
+public class CurrentUser {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName() + ".ID";
+
+    private final UserAccountCache userAccounts;
+
+    public CurrentUser(UserAccountCache userAccounts) {
+        this.userAccounts = userAccounts;
+    }
+
+    public Long id() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            throw new IllegalStateException("Current user not found");
+        }
+        if (auth.getPrincipal() instanceof LibraryUserDetails details) {
+            return details.getId();
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object memo = request != null ? request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        if (memo instanceof Long id) {
+            return id;
+        }
+        Long id = userAccounts.findByEmail(auth.getName())
+                .map(UserAccount::id)
+                .orElseThrow(() -> new IllegalStateException("Current user not found"));
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, id, RequestAttributes.SCOPE_REQUEST);
+        }
+        return id;
+    }
+
+    public boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -1,45 +1,48 @@
 package com.adriano.library.business.logic.service;
 
-import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.dto.UserAccount;
 import com.adriano.library.business.persistence.repository.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserAccountCache userAccounts;
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserAccountCache userAccounts, UserRepository userRepository) {
+        this.userAccounts = userAccounts;
         this.userRepository = userRepository;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserAccount account = userAccounts.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                true, // enabled
-                true, // account non expired
-                true, // credentials non expired
-                true, // account non-locked
-                getAuthorities(user)
-        );
+        // A fresh principal per login; the authentication manager erases its credentials
+        return new LibraryUserDetails(account);
     }
 
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        Collection<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getUserRole().name()));
-        return authorities;
+    // Called after a successful login whose stored hash uses a different BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserAccount account = userAccounts.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        try {
+            userRepository.findById(account.id()).ifPresent(entity -> {
+                entity.setPassword(newPassword);
+                userRepository.save(entity);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Changed concurrently; the hash is upgraded on a later login instead
+        }
+        userAccounts.evict(account.id());
+        return new LibraryUserDetails(new UserAccount(account.id(), account.email(), newPassword, account.role()));
     }
-}
\ No newline at end of file
+}
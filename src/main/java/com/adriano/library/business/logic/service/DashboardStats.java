@@ -0,0 +1,177 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.BookFacts;
+import com.adriano.library.business.domain.dto.DashboardTotals;
+import com.adriano.library.business.domain.dto.LoanFacts;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import com.adriano.library.business.domain.event.BookChanged;
+import com.adriano.library.business.domain.event.BookDeleted;
+import com.adriano.library.business.domain.event.DomainEvent;
+import com.adriano.library.business.domain.event.LoanCreated;
+import com.adriano.library.business.domain.event.LoanDeleted;
+import com.adriano.library.business.domain.event.LoanUpdated;
+import com.adriano.library.business.domain.event.UserDeleted;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Home page totals held in memory. Each committed book or loan change is applied as a delta
+ * against the last known facts of that row (domain events, a batch per lock); only open loans
+ * are kept, a returned one is dropped. A full recount from the database replaces everything
+ * periodically and after the daily status transitions. Reading the totals is a field access.
+ */
+@Service
+public class DashboardStats implements DomainEventListener {
+
+    private static final List<LoanStatus> OPEN = List.of(LoanStatus.RESERVED, LoanStatus.ACTIVE);
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final Counter drift;
+
+    private final Map<Long, BookFacts> books = new HashMap<>();
+    private final Map<Long, LoanFacts> loans = new HashMap<>();
+    private volatile Map<Long, Integer> openLoansByUser = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long totalCopies;
+    private long availableCopies;
+    private long activeLoans;
+    private long reservedLoans;
+    private boolean loaded;
+    private volatile DashboardTotals totals = DashboardTotals.EMPTY;
+
+    public DashboardStats(BookRepository bookRepository, LoanRepository loanRepository, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        // Recounts that found the incremental totals off
+        this.drift = Counter.builder("library.dashboard.drift").register(meterRegistry);
+    }
+
+    public DashboardTotals totals() {
+        return totals;
+    }
+
+    public int openLoansOf(Long userId) {
+        return openLoansByUser.getOrDefault(userId, 0);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${library.dashboard.reconcile-interval:PT15M}",
+            initialDelayString = "${library.dashboard.reconcile-interval:PT15M}")
+    public void reconcile() {
+        List<BookFacts> bookFacts = bookRepository.findAllFacts();
+        List<LoanFacts> loanFacts = loanRepository.findOpenFacts(OPEN);
+        lock.lock();
+        try {
+            DashboardTotals before = totals;
+            books.clear();
+            loans.clear();
+            openLoansByUser = new ConcurrentHashMap<>();
+            totalCopies = availableCopies = activeLoans = reservedLoans = 0;
+            bookFacts.forEach(book -> {
+                books.put(book.id(), book);
+                applyBook(null, book);
+            });
+            loanFacts.forEach(loan -> {
+                loans.put(loan.id(), loan);
+                applyLoan(null, loan);
+            });
+            publish();
+            if (loaded && !before.equals(totals)) drift.increment();
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        locked(() -> events.forEach(this::apply));
+    }
+
+    private void apply(DomainEvent event) {
+        switch (event) {
+            case BookChanged book -> {
+                BookFacts facts = new BookFacts(book.id(), book.totalCopies(), book.loanedCopies());
+                applyBook(books.put(book.id(), facts), facts);
+            }
+            case BookDeleted book -> {
+                applyBook(books.remove(book.id()), null);
+                removeLoans(loan -> book.id().equals(loan.bookId()));
+            }
+            case LoanCreated loan -> loanChanged(loan.facts());
+            case LoanUpdated loan -> loanChanged(loan.facts());
+            case LoanDeleted loan -> applyLoan(loans.remove(loan.id()), null);
+            case UserDeleted user -> removeLoans(loan -> user.id().equals(loan.userId()));
+        }
+    }
+
+    private void loanChanged(LoanFacts facts) {
+        if (facts.isOpen()) {
+            applyLoan(loans.put(facts.id(), facts), facts);
+        } else {
+            applyLoan(loans.remove(facts.id()), null);
+        }
+    }
+
+    private void removeLoans(Predicate<LoanFacts> filter) {
+        loans.values().removeIf(loan -> {
+            if (!filter.test(loan)) return false;
+            applyLoan(loan, null);
+            return true;
+        });
+    }
+
+    private void applyBook(BookFacts removed, BookFacts added) {
+        if (removed != null) {
+            totalCopies -= removed.total();
+            availableCopies -= removed.available();
+        }
+        if (added != null) {
+            totalCopies += added.total();
+            availableCopies += added.available();
+        }
+    }
+
+    private void applyLoan(LoanFacts removed, LoanFacts added) {
+        if (removed != null) count(removed, -1);
+        if (added != null) count(added, 1);
+    }
+
+    private void count(LoanFacts loan, int sign) {
+        if (loan.status() == LoanStatus.ACTIVE) activeLoans += sign;
+        if (loan.status() == LoanStatus.RESERVED) reservedLoans += sign;
+        openLoansByUser.compute(loan.userId(), (user, open) -> {
+            int count = (open != null ? open : 0) + sign;
+            return count > 0 ? count : null;
+        });
+    }
+
+    private void locked(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        totals = new DashboardTotals(books.size(), totalCopies, availableCopies,
+                activeLoans, reservedLoans, openLoansByUser.size());
+    }
+}
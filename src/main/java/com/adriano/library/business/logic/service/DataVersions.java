@@ -0,0 +1,66 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.util.TransactionCallbacks;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A counter per entity type ("book", "loan", ...) that moves on whenever a committed write may
+ * have changed that type's rows, with the time of the last move. Responses built from a table can
+ * then be revalidated (ETag / Last-Modified) without querying it. The counters live in memory:
+ * writes from another instance or straight to the database are not seen, and the start time in
+ * every tag makes a restart invalidate all of them.
+ */
+@Service
+public class DataVersions {
+
+    public record Version(long counter, Instant modified) {
+    }
+
+    // A loan write recounts its book's loanedCopies
+    private static final Map<String, List<String>> CHANGES_ALSO = Map.of("loan", List.of("book"));
+    // Rows removed with their parent (ON DELETE CASCADE / cascade = ALL)
+    private static final Map<String, List<String>> DELETES_ALSO = Map.of(
+            "book", List.of("author", "publisher", "loan"),
+            "user", List.of("loan"));
+
+    private final long started = System.currentTimeMillis();
+    private final Instant startedAt = Instant.ofEpochMilli(started).truncatedTo(ChronoUnit.SECONDS);
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    public Version current(String type) {
+        return versions.getOrDefault(type, new Version(0, startedAt));
+    }
+
+    // Opaque, changes with every write to the type and on restart
+    public String tag(Version version) {
+        return Long.toString(started, 36) + "-" + version.counter();
+    }
+
+    // Both move on once the current transaction commits (at once without one)
+
+    public void changed(String type) {
+        TransactionCallbacks.afterCommit(() -> {
+            bump(type);
+            CHANGES_ALSO.getOrDefault(type, List.of()).forEach(this::bump);
+        });
+    }
+
+    public void deleted(String type) {
+        TransactionCallbacks.afterCommit(() -> {
+            bump(type);
+            CHANGES_ALSO.getOrDefault(type, List.of()).forEach(this::bump);
+            DELETES_ALSO.getOrDefault(type, List.of()).forEach(this::bump);
+        });
+    }
+
+    private void bump(String type) {
+        Instant now = Instant.now();
+        versions.merge(type, new Version(1, now), (previous, ignored) -> new Version(previous.counter() + 1, now));
+    }
+}
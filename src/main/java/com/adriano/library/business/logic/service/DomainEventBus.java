@@ -0,0 +1,240 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.event.DomainEvent;
+import com.adriano.library.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process bus for domain events. Services publish from their after-hooks; each event is queued
+ * once its transaction commits and handed to the DomainEventListener beans in batches on the
+ * domain-events thread, off the request. The queue is bounded: a publisher waits for room,
+ * counting every offer-timeout it spends waiting, so events are never dropped or reordered.
+ * Stopping drains whatever is queued; events published after that are delivered by the publisher,
+ * still behind anything left in the queue. With await-delivery (test profile), publishing waits
+ * until the listeners have run.
+ */
+@Service
+public class DomainEventBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventBus.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final ObjectProvider<DomainEventListener> listeners;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<DomainEvent> queue;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final boolean awaitDelivery;
+    private final Counter overflow;
+    private final DistributionSummary batches;
+    // By listener name
+    private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+
+    // Published but not yet delivered, for awaitIdle
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    private long pending;
+
+    // Held for deliveries outside the dispatcher, once it has stopped
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+
+    private volatile boolean running;
+    // Cleared by stop() once the dispatcher has finished; publishers then deliver themselves
+    private volatile boolean accepting;
+    private Thread dispatcher;
+
+    public DomainEventBus(ObjectProvider<DomainEventListener> listeners, MeterRegistry meterRegistry,
+                          @Value("${library.events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${library.events.batch-size:500}") int batchSize,
+                          @Value("${library.events.offer-timeout:100ms}") Duration offerTimeout,
+                          @Value("${library.events.shutdown-timeout:10s}") Duration shutdownTimeout,
+                          @Value("${library.events.await-delivery:false}") boolean awaitDelivery) {
+        this.listeners = listeners;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.awaitDelivery = awaitDelivery;
+
+        Gauge.builder("library.events.queue", queue, BlockingQueue::size).register(meterRegistry);
+        // Offer timeouts publishers spent waiting on a full queue
+        this.overflow = Counter.builder("library.events.overflow").register(meterRegistry);
+        this.batches = DistributionSummary.builder("library.events.batch").baseUnit("events").register(meterRegistry);
+    }
+
+    // Queued after commit; dropped on rollback
+    public void publish(DomainEvent event) {
+        TransactionCallbacks.afterCommit(() -> enqueue(event));
+    }
+
+    // True once every event published so far has been delivered
+    public boolean awaitIdle(Duration timeout) {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (pending > 0) {
+                if (nanos <= 0) return false;
+                nanos = idle.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(DomainEvent event) {
+        changePending(1);
+        boolean queued = false;
+        boolean interrupted = false;
+        while (!queued && accepting) {
+            try {
+                queued = queue.offer(event, offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (!queued) overflow.increment();
+            } catch (InterruptedException e) {
+                // Keep waiting: giving up here would lose or reorder the event
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queued) {
+            deliverRemaining(List.of(event));
+        } else if (!accepting) {
+            // Queued after stop() took the last batch
+            deliverRemaining(List.of());
+        }
+        if (awaitDelivery) {
+            awaitIdle(shutdownTimeout);
+        }
+    }
+
+    private void dispatch() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+        // After stop(), keeps going until the queue is empty
+        while (running || !queue.isEmpty()) {
+            try {
+                DomainEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                // Shutdown timed out; stop() delivers the rest
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Whatever is still queued, then the given events, in one batch
+    private void deliverRemaining(List<DomainEvent> events) {
+        deliveryLock.lock();
+        try {
+            List<DomainEvent> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            rest.addAll(events);
+            if (!rest.isEmpty()) deliver(rest);
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    private void deliver(List<DomainEvent> events) {
+        List<DomainEvent> delivered = List.copyOf(events);
+        try {
+            batches.record(delivered.size());
+            listeners.orderedStream().forEach(listener -> {
+                try {
+                    listener.onEvents(delivered);
+                } catch (RuntimeException e) {
+                    String name = ClassUtils.getUserClass(listener).getSimpleName();
+                    failures.computeIfAbsent(name, listenerName -> Counter.builder("library.events.failed")
+                            .tag("listener", listenerName).register(meterRegistry)).increment();
+                    log.warn("Domain event listener {} failed on a batch of {} events", name, delivered.size(), e);
+                }
+            });
+        } finally {
+            changePending(-delivered.size());
+        }
+    }
+
+    private void changePending(long delta) {
+        lock.lock();
+        try {
+            pending += delta;
+            if (pending == 0) idle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lifecycle: started before and stopped after the web server, so requests never find it stopped
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+        dispatcher = new Thread(this::dispatch, "domain-events");
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        // Publishers keep queueing until the dispatcher is done
+        running = false;
+        try {
+            dispatcher.join(shutdownTimeout.toMillis());
+            if (dispatcher.isAlive()) {
+                dispatcher.interrupt();
+                dispatcher.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deliveryLock.lock();
+        try {
+            accepting = false;
+            deliverRemaining(List.of());
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,15 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.event.DomainEvent;
+
+import java.util.List;
+
+/**
+ * Consumer of committed domain events. Batches arrive one at a time and in publish order, on the
+ * event bus thread or, once the bus has stopped, on the publishing thread; implementations must
+ * still be thread-safe towards their readers.
+ */
+public interface DomainEventListener {
+
+    void onEvents(List<DomainEvent> events);
+}
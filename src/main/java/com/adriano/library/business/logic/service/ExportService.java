@@ -0,0 +1,174 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.BookRow;
+import com.adriano.library.business.domain.dto.LoanRow;
+import com.adriano.library.business.domain.dto.UserRow;
+import com.adriano.library.business.domain.enums.ExportFormat;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Loan, book and user exports as CSV or JSON. Rows come from repository streams in one
+ * read-only transaction and are written out as they arrive; being DTO projections, they never
+ * enter the persistence context, so memory use stays flat however many rows there are.
+ */
+@Service
+public class ExportService {
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    // Rows between flushes, so the client receives the export while it is being read
+    private static final int FLUSH_ROWS = 1000;
+
+    // First characters that make Excel, LibreOffice or Sheets evaluate a cell (CSV injection)
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private static final List<Column<LoanRow>> LOAN_COLUMNS = List.of(
+            new Column<>("id", LoanRow::getId),
+            new Column<>("book_title", LoanRow::getBookTitle),
+            new Column<>("book_isbn", LoanRow::getBookIsbn),
+            new Column<>("user_email", LoanRow::getUserEmail),
+            new Column<>("loan_date", LoanRow::getLoanDate),
+            new Column<>("return_date", LoanRow::getReturnDate),
+            new Column<>("status", LoanRow::getStatus));
+
+    private static final List<Column<BookRow>> BOOK_COLUMNS = List.of(
+            new Column<>("id", BookRow::getId),
+            new Column<>("title", BookRow::getTitle),
+            new Column<>("isbn", BookRow::getIsbn),
+            new Column<>("total_copies", BookRow::getTotalCopies),
+            new Column<>("loaned_copies", BookRow::getLoanedCopies));
+
+    private static final List<Column<UserRow>> USER_COLUMNS = List.of(
+            new Column<>("id", UserRow::getId),
+            new Column<>("email", UserRow::getEmail),
+            new Column<>("role", UserRow::getUserRole));
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final MeterRegistry meterRegistry;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExportService(LoanRepository loanRepository, BookRepository bookRepository, UserRepository userRepository,
+                         CurrentUser currentUser, MeterRegistry meterRegistry) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.currentUser = currentUser;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Same visibility as LoanService: ADMIN -> all, USER -> own only
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public long exportLoans(ExportFormat format, Writer out) throws IOException {
+        Long userId = currentUser.isAdmin() ? null : currentUser.id();
+        try (Stream<LoanRow> rows = loanRepository.streamRows(userId)) {
+            return write("loan", rows, LOAN_COLUMNS, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public long exportBooks(ExportFormat format, Writer out) throws IOException {
+        try (Stream<BookRow> rows = bookRepository.streamRows()) {
+            return write("book", rows, BOOK_COLUMNS, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public long exportUsers(ExportFormat format, Writer out) throws IOException {
+        try (Stream<UserRow> rows = userRepository.streamRows()) {
+            return write("user", rows, USER_COLUMNS, format, out);
+        }
+    }
+
+    // Returns the number of rows written
+    private <T> long write(String entity, Stream<T> rows, List<Column<T>> columns, ExportFormat format, Writer out)
+            throws IOException {
+        long count = switch (format) {
+            case CSV -> writeCsv(rows.iterator(), columns, out);
+            case JSON -> writeJson(rows.iterator(), columns, out);
+        };
+        Counter.builder("library.export.rows").tag("entity", entity).tag("format", format.extension())
+                .register(meterRegistry).increment(count);
+        return count;
+    }
+
+    private static <T> long writeCsv(Iterator<T> rows, List<Column<T>> columns, Writer out) throws IOException {
+        out.write(String.join(",", columns.stream().map(Column::name).toList()));
+        out.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) out.write(',');
+                out.write(csvField(columns.get(i).value().apply(row)));
+            }
+            out.write("\r\n");
+            if (++count % FLUSH_ROWS == 0) out.flush();
+        }
+        out.flush();
+        return count;
+    }
+
+    // RFC 4180: quoted when it holds a separator, quote or line break, with quotes doubled.
+    // Text a spreadsheet would take for a formula gets a leading quote; numbers and dates are left as they are
+    private static String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && FORMULA_START.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private <T> long writeJson(Iterator<T> rows, List<Column<T>> columns, Writer out) throws IOException {
+        long count = 0;
+        // The generator must not close the response writer
+        try (JsonGenerator json = jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            json.writeStartArray();
+            while (rows.hasNext()) {
+                T row = rows.next();
+                json.writeStartObject();
+                for (Column<T> column : columns) {
+                    Object value = column.value().apply(row);
+                    json.writeFieldName(column.name());
+                    if (value == null) {
+                        json.writeNull();
+                    } else if (value instanceof Number number) {
+                        json.writeNumber(number.longValue());
+                    } else {
+                        json.writeString(value.toString());
+                    }
+                }
+                json.writeEndObject();
+                if (++count % FLUSH_ROWS == 0) json.flush();
+            }
+            json.writeEndArray();
+        }
+        return count;
+    }
+}
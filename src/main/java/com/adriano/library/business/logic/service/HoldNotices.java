@@ -0,0 +1,52 @@
+package com.adriano.library.business.logic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Tells a waiting user their hold became a loan; sent off the booking thread once the allocation has committed
+@Component
+public class HoldNotices {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldNotices.class);
+
+    private final JavaMailSender mailSender;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final String from;
+
+    public HoldNotices(JavaMailSender mailSender, MeterRegistry meterRegistry,
+                       @Value("${library.reminders.from:library@localhost}") String from) {
+        this.mailSender = mailSender;
+        this.sentCounter = Counter.builder("library.holds.notices.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("library.holds.notices.failed").register(meterRegistry);
+        this.from = from;
+    }
+
+    @Async
+    public void allocated(String email, String bookTitle, LocalDate returnDate) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(email);
+        message.setSubject("Library: your hold is ready");
+        message.setText("A copy of \"" + bookTitle + "\" came free and has been lent to you until " + returnDate + ".\n"
+                + "Please collect it from the library.\n");
+        try {
+            mailSender.send(message);
+            sentCounter.increment();
+        } catch (MailException e) {
+            // The loan stands either way; it is on the user's loan list
+            failedCounter.increment();
+            log.warn("Could not send the hold notice to {}: {}", email, e.getMessage());
+        }
+    }
+}
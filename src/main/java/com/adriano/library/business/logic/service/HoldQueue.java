@@ -0,0 +1,112 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.QueuedHold;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import com.adriano.library.business.persistence.repository.LoanHoldRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory FIFO of the waiting holds of each book, ordered by request time: adding a hold and
+ * taking the oldest are O(log n), so allocating a freed copy never scans the hold table.
+ * Loaded once from {@link LoanHoldRepository} and kept current by {@link LoanService}, which
+ * changes it with the book's booking lock held; changes made inside a transaction are undone if
+ * it rolls back.
+ */
+@Service
+public class HoldQueue {
+
+    private static final Comparator<QueuedHold> FIFO =
+            Comparator.comparing(QueuedHold::requestedAt).thenComparing(QueuedHold::id);
+
+    private final LoanHoldRepository holdRepository;
+    private final Map<Long, TreeSet<QueuedHold>> queuesByBook = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public HoldQueue(LoanHoldRepository holdRepository) {
+        this.holdRepository = holdRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        lock.lock();
+        try {
+            queuesByBook.clear();
+            holdRepository.findQueued(HoldStatus.WAITING).forEach(this::insert);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void add(QueuedHold hold) {
+        lock.lock();
+        try {
+            insert(hold);
+        } finally {
+            lock.unlock();
+        }
+        TransactionCallbacks.afterRollback(() -> delete(hold));
+    }
+
+    // Oldest waiting hold of the book, or null
+    public QueuedHold next(Long bookId) {
+        lock.lock();
+        try {
+            TreeSet<QueuedHold> queue = queuesByBook.get(bookId);
+            return queue != null ? queue.first() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes the hold out of its book's queue (allocated, lapsed or gone)
+    public void remove(QueuedHold hold) {
+        if (delete(hold)) {
+            TransactionCallbacks.afterRollback(() -> add(hold));
+        }
+    }
+
+    // 1 for the next hold to be served
+    public int position(QueuedHold hold) {
+        lock.lock();
+        try {
+            TreeSet<QueuedHold> queue = queuesByBook.get(hold.bookId());
+            return queue != null && queue.contains(hold) ? queue.headSet(hold).size() + 1 : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Long> bookIds() {
+        lock.lock();
+        try {
+            return List.copyOf(queuesByBook.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insert(QueuedHold hold) {
+        queuesByBook.computeIfAbsent(hold.bookId(), id -> new TreeSet<>(FIFO)).add(hold);
+    }
+
+    private boolean delete(QueuedHold hold) {
+        lock.lock();
+        try {
+            TreeSet<QueuedHold> queue = queuesByBook.get(hold.bookId());
+            if (queue == null || !queue.remove(hold)) return false;
+            if (queue.isEmpty()) queuesByBook.remove(hold.bookId());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
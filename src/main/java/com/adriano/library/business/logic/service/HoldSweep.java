@@ -0,0 +1,59 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.QueuedHold;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import com.adriano.library.business.persistence.repository.LoanHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Expires the holds still waiting past their expires-on day, then serves the queues of every
+ * book from the copies free now: copies freed without a loan write (more copies added to the
+ * book) are picked up here. Runs after day rollover and at startup.
+ */
+@Component
+public class HoldSweep {
+
+    private final LoanHoldRepository holdRepository;
+    private final HoldQueue holdQueue;
+    private final LoanService loanService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter expiredCounter;
+
+    public HoldSweep(LoanHoldRepository holdRepository, HoldQueue holdQueue, LoanService loanService,
+                     TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.holdRepository = holdRepository;
+        this.holdQueue = holdQueue;
+        this.loanService = loanService;
+        this.transactionTemplate = transactionTemplate;
+        this.expiredCounter = Counter.builder("library.holds.expired").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.holds.sweep-cron:0 5 0 * * *}")
+    public void run() {
+        run(LocalDate.now());
+    }
+
+    // Returns the number of holds expired
+    public int run(LocalDate today) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<QueuedHold> lapsed = holdRepository.findLapsed(HoldStatus.WAITING, today);
+            if (lapsed.isEmpty()) return 0;
+            lapsed.forEach(holdQueue::remove);
+            return holdRepository.updateStatus(lapsed.stream().map(QueuedHold::id).toList(),
+                    HoldStatus.WAITING, HoldStatus.EXPIRED);
+        });
+        expiredCounter.increment(expired);
+        loanService.allocateHolds(holdQueue.bookIds());
+        return expired;
+    }
+}
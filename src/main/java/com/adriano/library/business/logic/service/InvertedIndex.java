@@ -0,0 +1,190 @@
+package com.adriano.library.business.logic.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Token index over short weighted text fields. A query token matches indexed tokens exactly,
+ * as a prefix (sorted token map) or by trigram similarity (gram to token map), and documents
+ * are ranked by the sum of their best match per query token.
+ */
+class InvertedIndex {
+
+    record Match(String key, double score) {
+    }
+
+    private static final double EXACT = 3.0;
+    private static final double PREFIX = 2.0;
+    private static final double MIN_SIMILARITY = 0.4;
+    private static final int MAX_EXPANSIONS = 200;
+
+    // token -> (document key -> field weight)
+    private final TreeMap<String, Map<String, Double>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private final Map<String, Map<String, Double>> tokensByDocument = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replaces the document; fields map text to its weight
+    void put(String key, Map<String, Double> fields) {
+        Map<String, Double> tokens = new HashMap<>();
+        fields.forEach((text, weight) -> {
+            for (String token : tokenize(text)) {
+                tokens.merge(token, weight, Math::max);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            unindex(key);
+            tokens.forEach((token, weight) -> {
+                Map<String, Double> documents = postings.computeIfAbsent(token, t -> {
+                    grams(t).forEach(gram -> tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(t));
+                    return new HashMap<>();
+                });
+                documents.put(key, weight);
+            });
+            tokensByDocument.put(key, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            unindex(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByGram.clear();
+            tokensByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Match> search(String query, int limit, Predicate<String> keyFilter) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) return List.of();
+
+        Map<String, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                Map<String, Double> best = new HashMap<>();
+                collectPrefixMatches(queryToken, keyFilter, best);
+                if (queryToken.length() >= 3) {
+                    collectSimilarMatches(queryToken, keyFilter, best);
+                }
+                best.forEach((key, score) -> scores.merge(key, score, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Top-k with a bounded min-heap
+        Comparator<Match> byScore = Comparator.comparingDouble(Match::score).thenComparing(Match::key, Comparator.reverseOrder());
+        PriorityQueue<Match> top = new PriorityQueue<>(byScore);
+        scores.forEach((key, score) -> {
+            top.offer(new Match(key, score));
+            if (top.size() > limit) top.poll();
+        });
+        List<Match> result = new ArrayList<>(top);
+        result.sort(byScore.reversed());
+        return result;
+    }
+
+    private void collectPrefixMatches(String queryToken, Predicate<String> keyFilter, Map<String, Double> best) {
+        int expansions = 0;
+        for (Map.Entry<String, Map<String, Double>> entry
+                : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+            if (expansions++ >= MAX_EXPANSIONS) break;
+            String token = entry.getKey();
+            // Shorter completions are closer to what was typed
+            double boost = token.equals(queryToken) ? EXACT : PREFIX * queryToken.length() / token.length();
+            addMatches(entry.getValue(), boost, keyFilter, best);
+        }
+    }
+
+    private void collectSimilarMatches(String queryToken, Predicate<String> keyFilter, Map<String, Double> best) {
+        Set<String> queryGrams = grams(queryToken);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String token : tokensByGram.getOrDefault(gram, Set.of())) {
+                shared.merge(token, 1, Integer::sum);
+            }
+        }
+        shared.forEach((token, common) -> {
+            if (token.startsWith(queryToken)) return; // already scored as a prefix
+            double similarity = (double) common / (queryGrams.size() + grams(token).size() - common);
+            if (similarity >= MIN_SIMILARITY) {
+                addMatches(postings.get(token), similarity, keyFilter, best);
+            }
+        });
+    }
+
+    private static void addMatches(Map<String, Double> documents, double boost, Predicate<String> keyFilter,
+                                   Map<String, Double> best) {
+        documents.forEach((key, weight) -> {
+            if (keyFilter.test(key)) best.merge(key, weight * boost, Math::max);
+        });
+    }
+
+    private void unindex(String key) {
+        Map<String, Double> tokens = tokensByDocument.remove(key);
+        if (tokens == null) return;
+        for (String token : tokens.keySet()) {
+            Map<String, Double> documents = postings.get(token);
+            documents.remove(key);
+            if (documents.isEmpty()) {
+                postings.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> gramTokens = tokensByGram.get(gram);
+                    gramTokens.remove(token);
+                    if (gramTokens.isEmpty()) tokensByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return List.copyOf(tokens);
+    }
+
+    // Trigrams of the token padded with word boundaries, so short tokens still get grams
+    private static Set<String> grams(String token) {
+        String padded = "^" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
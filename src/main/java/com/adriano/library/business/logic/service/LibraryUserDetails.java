@@ -0,0 +1,30 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.UserAccount;
+import com.adriano.library.business.domain.enums.UserRole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+// Authenticated principal that also carries the user's id and role, so requests need no lookup to know them
+public class LibraryUserDetails extends User {
+
+    private final Long id;
+    private final UserRole role;
+
+    public LibraryUserDetails(UserAccount account) {
+        super(account.email(), account.password(), true, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + account.role().name())));
+        this.id = account.id();
+        this.role = account.role();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,147 @@
+package com.adriano.library.business.logic.service;
+
+/**
+ * AVL tree of closed day intervals ordered by (start, id) and augmented with the
+ * maximum end of each subtree, so overlap queries run in O(log n + k).
+ * Not thread-safe; {@link BookAvailabilityIndex} guards access.
+ */
+class LoanIntervalTree {
+
+    @FunctionalInterface
+    interface IntervalConsumer {
+        void accept(long id, long start, long end);
+    }
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+    private boolean removed;
+
+    int size() {
+        return size;
+    }
+
+    void insert(long id, long start, long end) {
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    boolean remove(long id, long start) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) size--;
+        return removed;
+    }
+
+    // Visits every interval intersecting [from, to]
+    void forEachOverlapping(long from, long to, IntervalConsumer consumer) {
+        collect(root, from, to, consumer);
+    }
+
+    private void collect(Node node, long from, long to, IntervalConsumer consumer) {
+        if (node == null || node.maxEnd < from) return;
+        collect(node.left, from, to, consumer);
+        // This node and its right subtree start after the window
+        if (node.start > to) return;
+        if (node.end >= from) consumer.accept(node.id, node.start, node.end);
+        collect(node.right, from, to, consumer);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added.start, added.id, node) < 0) node.left = insert(node.left, added);
+        else node.right = insert(node.right, added);
+        return balance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) return null;
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) return node.right;
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
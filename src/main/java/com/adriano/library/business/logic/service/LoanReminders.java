@@ -0,0 +1,159 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.ReminderLine;
+import com.adriano.library.business.domain.entity.ReminderCheckpoint;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.ReminderCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Daily mail to every user with an active loan due back between today and due-days from now,
+ * one message per user listing all such loans. Users are read chunk-size at a time in id order
+ * from a return date range query; their messages go out messages-per-connection to an SMTP
+ * connection, paced to at most rate messages per second. After each connection the last user
+ * mailed is checkpointed, so a run interrupted by a crash or an SMTP failure resumes after them
+ * (at startup, or by calling run again) rather than mailing everyone twice.
+ */
+@Component
+public class LoanReminders {
+
+    // Reserved loans have not been picked up, and returned ones are over (nothing records whether the book came back)
+    private static final List<LoanStatus> STATUSES = List.of(LoanStatus.ACTIVE);
+
+    private final LoanRepository loanRepository;
+    private final ReminderCheckpointRepository checkpoints;
+    private final JavaMailSender mailSender;
+    private final Counter sentCounter;
+    private final String from;
+    private final int dueDays;
+    private final int chunkSize;
+    private final int messagesPerConnection;
+    private final double rate;
+
+    // One run at a time (the schedule and a manual or startup run); not synchronized, as runs query the database
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextSendNanos = System.nanoTime();
+
+    public LoanReminders(LoanRepository loanRepository, ReminderCheckpointRepository checkpoints,
+                         JavaMailSender mailSender, MeterRegistry meterRegistry,
+                         @Value("${library.reminders.from:library@localhost}") String from,
+                         @Value("${library.reminders.due-days:2}") int dueDays,
+                         @Value("${library.reminders.chunk-size:200}") int chunkSize,
+                         @Value("${library.reminders.messages-per-connection:20}") int messagesPerConnection,
+                         @Value("${library.reminders.rate:5}") double rate) {
+        this.loanRepository = loanRepository;
+        this.checkpoints = checkpoints;
+        this.mailSender = mailSender;
+        this.sentCounter = Counter.builder("library.reminders.sent").register(meterRegistry);
+        this.from = from;
+        this.dueDays = dueDays;
+        this.chunkSize = chunkSize;
+        this.messagesPerConnection = messagesPerConnection;
+        this.rate = rate;
+    }
+
+    @Scheduled(cron = "${library.reminders.cron:0 0 7 * * *}")
+    public void run() {
+        run(LocalDate.now());
+    }
+
+    // Picks up a run of today's that did not finish
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        LocalDate today = LocalDate.now();
+        checkpoints.findById(today).filter(checkpoint -> !checkpoint.isCompleted()).ifPresent(checkpoint -> run(today));
+    }
+
+    // Returns the number of messages sent; 0 once the day's run has completed
+    public int run(LocalDate today) {
+        lock.lock();
+        try {
+            return send(today);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int send(LocalDate today) {
+        ReminderCheckpoint checkpoint = checkpoints.findById(today).orElseGet(() -> new ReminderCheckpoint(today));
+        if (checkpoint.isCompleted()) return 0;
+
+        LocalDate lastDay = today.plusDays(dueDays);
+        int sent = 0;
+        while (true) {
+            List<Long> userIds = loanRepository.findUserIdsWithReturnBetween(STATUSES, today, lastDay,
+                    checkpoint.getLastUserId(), PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) break;
+
+            Map<Long, List<ReminderLine>> byUser = loanRepository.findReminderLines(userIds, STATUSES, today, lastDay)
+                    .stream()
+                    .collect(Collectors.groupingBy(ReminderLine::userId, LinkedHashMap::new, Collectors.toList()));
+            List<List<ReminderLine>> users = new ArrayList<>(byUser.values());
+
+            for (int start = 0; start < users.size(); start += messagesPerConnection) {
+                List<List<ReminderLine>> batch = users.subList(start, Math.min(start + messagesPerConnection, users.size()));
+                pace(batch.size());
+                // One SMTP connection for the whole array
+                mailSender.send(batch.stream().map(this::message).toArray(SimpleMailMessage[]::new));
+
+                checkpoint.setLastUserId(batch.get(batch.size() - 1).get(0).userId());
+                checkpoint.setSent(checkpoint.getSent() + batch.size());
+                checkpoint = checkpoints.save(checkpoint);
+                sentCounter.increment(batch.size());
+                sent += batch.size();
+            }
+            // A user with no lines left by the second query (loan changed in between) still moves the chunk on
+            if (checkpoint.getLastUserId() < userIds.get(userIds.size() - 1)) {
+                checkpoint.setLastUserId(userIds.get(userIds.size() - 1));
+                checkpoint = checkpoints.save(checkpoint);
+            }
+        }
+        checkpoint.setCompleted(true);
+        checkpoints.save(checkpoint);
+        return sent;
+    }
+
+    private SimpleMailMessage message(List<ReminderLine> lines) {
+        StringBuilder text = new StringBuilder("These loans are due soon:\n");
+        lines.forEach(line -> text.append("  - ").append(line.bookTitle()).append(" (due ").append(line.returnDate()).append(")\n"));
+        text.append('\n');
+        text.append("Please return the books to the library by their due date.\n");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(lines.get(0).email());
+        message.setSubject("Library: loans due soon");
+        message.setText(text.toString());
+        return message;
+    }
+
+    // Waits until sending 'messages' more keeps the run at or under the configured rate (0 = no limit)
+    private void pace(int messages) {
+        if (rate <= 0) return;
+        long now;
+        while ((now = System.nanoTime()) < nextSendNanos) {
+            LockSupport.parkNanos(nextSendNanos - now);
+        }
+        nextSendNanos = now + (long) (messages * TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+}
@@ -1,71 +1,228 @@
 package com.adriano.library.business.logic.service;
 
+import com.adriano.library.business.domain.dto.LoanRow;
+import com.adriano.library.business.domain.dto.QueuedHold;
 import com.adriano.library.business.domain.entity.Book;
 import com.adriano.library.business.domain.entity.Loan;
-import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.entity.LoanHold;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import com.adriano.library.business.domain.event.BookChanged;
+import com.adriano.library.business.domain.event.LoanCreated;
+import com.adriano.library.business.domain.event.LoanDeleted;
+import com.adriano.library.business.domain.event.LoanUpdated;
 import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanHoldRepository;
 import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class LoanService extends BaseService<Loan, Long> {
 
+    private static final int MAX_BOOKING_ATTEMPTS = 3;
+    private static final String COPIES_CHECK = "chk_book_loaned_copies"; // see Book
+
     private final LoanRepository loanRepository;
     private final BookRepository bookRepository;
-    private final UserService userService;
+    private final CurrentUser currentUser;
+    private final BookAvailabilityIndex availabilityIndex;
+    private final BookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainEventBus events;
+    private final CatalogCache catalogCache;
+    private final UserRepository userRepository;
+    private final LoanHoldRepository holdRepository;
+    private final HoldQueue holdQueue;
+    private final HoldNotices holdNotices;
+    private final int holdLoanDays;
+    private final int holdExpireDays;
 
-    public LoanService(LoanRepository repository, BookRepository bookRepository, UserService userService) {
+    public LoanService(LoanRepository repository, BookRepository bookRepository, CurrentUser currentUser,
+                       BookAvailabilityIndex availabilityIndex, BookingLocks bookingLocks,
+                       TransactionTemplate transactionTemplate, DomainEventBus events, CatalogCache catalogCache,
+                       UserRepository userRepository, LoanHoldRepository holdRepository, HoldQueue holdQueue,
+                       HoldNotices holdNotices,
+                       @Value("${library.holds.loan-days:14}") int holdLoanDays,
+                       @Value("${library.holds.expire-days:30}") int holdExpireDays) {
         super(repository);
         this.loanRepository = repository;
         this.bookRepository = bookRepository;
-        this.userService = userService;
+        this.currentUser = currentUser;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.catalogCache = catalogCache;
+        this.userRepository = userRepository;
+        this.holdRepository = holdRepository;
+        this.holdQueue = holdQueue;
+        this.holdNotices = holdNotices;
+        this.holdLoanDays = holdLoanDays;
+        this.holdExpireDays = holdExpireDays;
     }
 
     @Override
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public void save(Loan loan) {
         // If not admin, ensure user is creating loan for themselves
-        if (!isAdmin()) {
-            String currentUserEmail = getCurrentUserEmail();
-            User currentUser = userService.findByEmail(currentUserEmail)
-                    .orElseThrow(() -> new IllegalStateException("Current user not found"));
-
-            if (loan.getUser() == null || !loan.getUser().getId().equals(currentUser.getId())) {
-                throw new SecurityException("You can only create loans for yourself");
+        if (!currentUser.isAdmin()) {
+            if (loan.getUser() == null || !loan.getUser().getId().equals(currentUser.id())) {
+                throw denied("You can only create loans for yourself");
             }
         }
-        super.save(loan);
+        Long originalId = loan.getId();
+        long originalVersion = loan.getVersion();
+        book(Arrays.asList(bookIdOf(loan)), () -> {
+            // A failed attempt may have assigned id and version
+            loan.setId(originalId);
+            loan.setVersion(originalVersion);
+            super.save(loan);
+        });
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void update(Long id, Loan loan) {
-        super.update(id, loan);
+        book(Arrays.asList(bookIdOf(loan), availabilityIndex.bookOf(id)), () -> super.update(id, loan));
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteById(Long id) {
-        super.deleteById(id);
+        book(Collections.singletonList(availabilityIndex.bookOf(id)), () -> super.deleteById(id));
+    }
+
+    // Batches are for staff bulk loads; every book the batch touches is locked for its duration
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveAll(Collection<Loan> loans) {
+        List<Loan> batch = List.copyOf(loans);
+        List<Long> originalIds = batch.stream().map(Loan::getId).toList();
+        long[] originalVersions = batch.stream().mapToLong(Loan::getVersion).toArray();
+        book(batch.stream().map(LoanService::bookIdOf).toList(), () -> {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(originalIds.get(i));
+                batch.get(i).setVersion(originalVersions[i]);
+            }
+            super.saveAll(batch);
+        });
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateAll(Map<Long, Loan> loans) {
+        List<Long> bookIds = new ArrayList<>();
+        loans.forEach((id, loan) -> {
+            bookIds.add(bookIdOf(loan));
+            bookIds.add(availabilityIndex.bookOf(id));
+        });
+        book(bookIds, () -> super.updateAll(loans));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteAllById(Collection<Long> ids) {
+        book(ids.stream().map(availabilityIndex::bookOf).toList(), () -> super.deleteAllById(ids));
+    }
+
+    /**
+     * Queues the user for the next free copy of the book. With nobody ahead and a copy free for
+     * the next loan-days, the hold is served at once; otherwise it waits for a loan of the book to
+     * be returned, shortened or deleted, and lapses after expire-days.
+     */
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public LoanHold placeHold(Long bookId, Long userId) {
+        if (!currentUser.isAdmin() && !Objects.equals(userId, currentUser.id())) {
+            throw denied("You can only place holds for yourself");
+        }
+        if (bookId == null) {
+            throw rejected("book_missing", "Book is required");
+        }
+        LoanHold hold = new LoanHold();
+        book(Collections.singletonList(bookId), () -> {
+            hold.setId(null);
+            hold.setVersion(0);
+            hold.setStatus(HoldStatus.WAITING);
+            hold.setBook(bookRepository.findById(bookId).orElseThrow(() -> rejected("book_missing", "Book not found")));
+            hold.setUser(userRepository.findById(userId).orElseThrow(() -> rejected("user_missing", "User not found")));
+            if (holdRepository.existsByBookIdAndUserIdAndStatus(bookId, userId, HoldStatus.WAITING)) {
+                throw rejected("hold_exists", "A hold for this book is already waiting");
+            }
+            // Microseconds, as stored: the queue entry must equal the one read back by the expiry sweep
+            hold.setRequestedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+            hold.setExpiresOn(LocalDate.now().plusDays(holdExpireDays));
+            holdRepository.save(hold);
+            holdQueue.add(queued(hold));
+            allocateHolds(bookId);
+        });
+        return hold;
+    }
+
+    // 1 for the next hold to be served, 0 once it has left the queue
+    public int queuePosition(LoanHold hold) {
+        return holdQueue.position(queued(hold));
+    }
+
+    // Serves the holds of the books from the copies free now; for changes made outside this service
+    public void allocateHolds(Collection<Long> bookIds) {
+        List<Long> queued = bookIds.stream().filter(id -> holdQueue.next(id) != null).distinct().toList();
+        if (queued.isEmpty()) return;
+        book(queued, () -> queued.forEach(this::allocateHolds));
     }
 
     // Visibility restriction: ADMIN -> all, USER -> own only
     @Override
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public List<Loan> findAll() {
-        if (isAdmin()) {
+        if (currentUser.isAdmin()) {
             return super.findAll();
         }
-        String currentUserEmail = getCurrentUserEmail();
-        User currentUser = userService.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new IllegalStateException("Current user not found"));
-        return loanRepository.findByUserId(currentUser.getId());
+        return loanRepository.findByUserId(currentUser.id());
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Window<Loan> findWindow(Long cursor, int size, Sort sort) {
+        if (currentUser.isAdmin()) {
+            return super.findWindow(cursor, size, sort);
+        }
+        return findWindow(LoanRepository.byUserId(currentUser.id()), cursor, size, sort);
+    }
+
+    // Same visibility as findWindow, as list view rows; status narrows the list when given
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Window<LoanRow> findRows(LoanStatus status, Long cursor, int size, Sort sort) {
+        if (currentUser.isAdmin()) {
+            return loanRepository.findRows(null, status, cursor, size, sort);
+        }
+        return loanRepository.findRows(currentUser.id(), status, cursor, size, sort);
     }
 
     // Defensive: prevent non-admins from fetching someone else's loan by id
@@ -73,13 +230,10 @@ public class LoanService extends BaseService<Loan, Long> {
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public Optional<Loan> findById(Long id) {
         Optional<Loan> opt = super.findById(id);
-        if (isAdmin() || opt.isEmpty()) return opt;
-        String currentUserEmail = getCurrentUserEmail();
-        User currentUser = userService.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new IllegalStateException("Current user not found"));
+        if (currentUser.isAdmin() || opt.isEmpty()) return opt;
         Loan loan = opt.get();
-        if (!loan.getUser().getId().equals(currentUser.getId())) {
-            throw new SecurityException("You are not allowed to access this loan");
+        if (!loan.getUser().getId().equals(currentUser.id())) {
+            throw denied("You are not allowed to access this loan");
         }
         return opt;
     }
@@ -87,79 +241,277 @@ public class LoanService extends BaseService<Loan, Long> {
     @Override
     public void beforeSave(Loan loan) {
         validateLoan(loan);
-        updateBookCopies(loan.getBook(), 1); // Increment loaned copies
+    }
+
+    @Override
+    public void afterSave(Loan loan) {
+        availabilityIndex.put(loan);
+        updateBookCopies(loan.getBook().getId());
+        events.publish(LoanCreated.of(loan));
     }
 
     @Override
     public void beforeUpdate(Long id, Loan loan) {
         validateLoan(loan);
+    }
 
-        // Get the old loan to check if book changed
-        Loan oldLoan = loanRepository.findById(id).orElse(null);
-        if (oldLoan != null && !oldLoan.getBook().getId().equals(loan.getBook().getId())) {
-            // Book changed - return old book and loan new book
-            updateBookCopies(oldLoan.getBook(), -1);
-            updateBookCopies(loan.getBook(), 1);
+    @Override
+    public void afterUpdate(Loan loan) {
+        Long previousBookId = availabilityIndex.put(loan);
+        updateBookCopies(loan.getBook().getId());
+        if (previousBookId != null && !previousBookId.equals(loan.getBook().getId())) {
+            // Book changed - the old one got a copy back
+            updateBookCopies(previousBookId);
+            allocateHolds(previousBookId);
         }
+        events.publish(LoanUpdated.of(loan));
+        // Shorter dates may have freed the copy
+        allocateHolds(loan.getBook().getId());
     }
 
     @Override
-    public void beforeDelete(Long id) {
-        loanRepository.findById(id).ifPresent(loan ->
-                updateBookCopies(loan.getBook(), -1) // Decrement loaned copies
-        );
+    public void afterDelete(Long id) {
+        Long bookId = availabilityIndex.remove(id);
+        if (bookId != null) {
+            updateBookCopies(bookId);
+        }
+        events.publish(new LoanDeleted(id));
+        if (bookId != null) {
+            allocateHolds(bookId);
+        }
     }
 
-    private void validateLoan(Loan loan) {
-        // Validate dates
-        if (loan.getLoanDate() == null || loan.getReturnDate() == null) {
-            throw new IllegalArgumentException("Loan date and return date are required");
+    // Batch hooks. Capacity is checked after the rows are written (same transaction, books locked), so the
+    // loans of one batch count against each other; books are loaded and recounted once per batch.
+
+    @Override
+    public void beforeSaveAll(List<Loan> loans) {
+        validateBatch(loans);
+    }
+
+    @Override
+    public void afterSaveAll(List<Loan> loans) {
+        Map<Long, Book> books = booksById(loans.stream().map(LoanService::bookIdOf).toList());
+        loans.forEach(loan -> reserve(loan, books));
+        updateBookCopies(books.values());
+        loans.forEach(loan -> events.publish(LoanCreated.of(loan)));
+    }
+
+    @Override
+    public void beforeUpdateAll(Map<Long, Loan> loans) {
+        validateBatch(loans.values());
+    }
+
+    @Override
+    public void afterUpdateAll(List<Loan> loans) {
+        Map<Long, Book> books = booksById(loans.stream().map(LoanService::bookIdOf).toList());
+        List<Long> previousBookIds = new ArrayList<>();
+        loans.forEach(loan -> previousBookIds.add(reserve(loan, books)));
+        // Books that lost a loan to another book get a copy back
+        previousBookIds.removeIf(id -> id == null || books.containsKey(id));
+        books.putAll(booksById(previousBookIds));
+        updateBookCopies(books.values());
+        loans.forEach(loan -> events.publish(LoanUpdated.of(loan)));
+        books.keySet().forEach(this::allocateHolds);
+    }
+
+    @Override
+    public void afterDeleteAll(Collection<Long> ids) {
+        List<Long> bookIds = new ArrayList<>();
+        ids.forEach(id -> bookIds.add(availabilityIndex.remove(id)));
+        bookIds.removeIf(Objects::isNull);
+        updateBookCopies(booksById(bookIds).values());
+        ids.forEach(id -> events.publish(new LoanDeleted(id)));
+        new HashSet<>(bookIds).forEach(this::allocateHolds);
+    }
+
+    private void validateBatch(Collection<Loan> loans) {
+        loans.forEach(this::validateDates);
+        Set<Long> bookIds = new HashSet<>();
+        for (Loan loan : loans) {
+            if (bookIdOf(loan) == null) {
+                throw rejected("book_missing", "Book is required");
+            }
+            bookIds.add(bookIdOf(loan));
         }
+        if (bookRepository.findAllById(bookIds).size() != bookIds.size()) {
+            throw rejected("book_missing", "Book not found");
+        }
+    }
 
-        // Return date must be at least loan date + 1 day
-        if (!loan.getReturnDate().isAfter(loan.getLoanDate())) {
-            throw new IllegalArgumentException("Return date must be after loan date");
+    // Indexes the loan if its book has a free copy on every day of it; returns the previously indexed book
+    private Long reserve(Loan loan, Map<Long, Book> books) {
+        Book book = books.get(bookIdOf(loan));
+        if (countOccupiedCopies(book.getId(), loan) >= book.getTotalCopies()) {
+            throw rejected("no_copies", "No available copies for this book at the selected dates");
         }
+        return availabilityIndex.put(loan);
+    }
+
+    private Map<Long, Book> booksById(Collection<Long> ids) {
+        Map<Long, Book> books = new HashMap<>();
+        bookRepository.findAllById(new HashSet<>(ids)).forEach(book -> books.put(book.getId(), book));
+        return books;
+    }
+
+    private void validateLoan(Loan loan) {
+        validateDates(loan);
 
         // Validate book availability
-        Book book = loan.getBook();
-        if (book == null) {
-            throw new IllegalArgumentException("Book is required");
+        if (loan.getBook() == null || loan.getBook().getId() == null) {
+            throw rejected("book_missing", "Book is required");
         }
+        Book book = bookRepository.findById(loan.getBook().getId())
+                .orElseThrow(() -> rejected("book_missing", "Book not found"));
 
-        // Count active and reserved loans for this book
-        int occupiedCopies = countOccupiedCopies(book.getId(), loan.getId());
+        // Busiest day of the requested dates, counting the other loans of this book
+        int occupiedCopies = countOccupiedCopies(book.getId(), loan);
 
         if (occupiedCopies >= book.getTotalCopies()) {
-            throw new IllegalArgumentException("No available copies for this book at the selected dates");
+            throw rejected("no_copies", "No available copies for this book at the selected dates");
         }
     }
 
-    private int countOccupiedCopies(Long bookId, Long excludeLoanId) {
-        List<Loan> loans = loanRepository.findAll();
-        return (int) loans.stream()
-                .filter(l -> l.getBook().getId().equals(bookId))
-                .filter(l -> !l.getId().equals(excludeLoanId))
-                .filter(l -> l.getStatus() != com.adriano.library.business.domain.enums.LoanStatus.RETURNED)
-                .count();
+    private void validateDates(Loan loan) {
+        if (loan.getLoanDate() == null || loan.getReturnDate() == null) {
+            throw rejected("invalid_dates", "Loan date and return date are required");
+        }
+
+        // Return date must be at least loan date + 1 day
+        if (!loan.getReturnDate().isAfter(loan.getLoanDate())) {
+            throw rejected("invalid_dates", "Return date must be after loan date");
+        }
     }
 
-    private void updateBookCopies(Book book, int delta) {
-        bookRepository.findById(book.getId()).ifPresent(b -> {
-            int currentLoaned = b.getLoanedCopies() != null ? b.getLoanedCopies() : 0;
-            b.setLoanedCopies(currentLoaned + delta);
+    private int countOccupiedCopies(Long bookId, Loan loan) {
+        return availabilityIndex.peakConcurrentLoans(bookId, loan.getLoanDate(), loan.getReturnDate(), loan.getId());
+    }
+
+    // loanedCopies reflects the copies out today; future reservations only count once they start
+    private void updateBookCopies(Long bookId) {
+        int loanedToday = availabilityIndex.loansOn(bookId, LocalDate.now());
+        bookRepository.findById(bookId).ifPresent(b -> {
+            b.setLoanedCopies(loanedToday);
             bookRepository.save(b);
+            events.publish(BookChanged.of(b));
+        });
+    }
+
+    private void updateBookCopies(Collection<Book> books) {
+        LocalDate today = LocalDate.now();
+        books.forEach(b -> b.setLoanedCopies(availabilityIndex.loansOn(b.getId(), today)));
+        bookRepository.saveAll(books);
+        books.forEach(b -> events.publish(BookChanged.of(b)));
+    }
+
+    /**
+     * Lends the copies of the book that are free from today to its waiting holds, oldest first,
+     * each as a loan of loan-days. Runs with the book locked and in the transaction that freed
+     * the copy, so no booking can take it in between.
+     */
+    private void allocateHolds(Long bookId) {
+        QueuedHold next = holdQueue.next(bookId);
+        if (next == null) return;
+        Book book = bookRepository.findById(bookId).orElse(null);
+        LocalDate today = LocalDate.now();
+        for (; next != null; next = holdQueue.next(bookId)) {
+            LoanHold hold = book != null ? holdRepository.findById(next.id()).orElse(null) : null;
+            if (hold == null || hold.getStatus() != HoldStatus.WAITING) {
+                holdQueue.remove(next); // deleted with its book or user
+                continue;
+            }
+            if (hold.getExpiresOn().isBefore(today)) {
+                // Lapsed since the last sweep
+                hold.setStatus(HoldStatus.EXPIRED);
+                holdRepository.save(hold);
+                holdQueue.remove(next);
+                continue;
+            }
+
+            Loan loan = new Loan();
+            loan.setBook(book);
+            loan.setUser(hold.getUser());
+            loan.setLoanDate(today);
+            loan.setReturnDate(today.plusDays(holdLoanDays));
+            if (countOccupiedCopies(bookId, loan) >= book.getTotalCopies()) return;
+
+            super.save(loan);
+            hold.setStatus(HoldStatus.ALLOCATED);
+            hold.setLoanId(loan.getId());
+            holdRepository.save(hold);
+            holdQueue.remove(next);
+            counter("library.holds.allocated").increment();
+
+            String email = hold.getUser().getEmail();
+            String title = book.getTitle();
+            LocalDate due = loan.getReturnDate();
+            TransactionCallbacks.afterCommit(() -> holdNotices.allocated(email, title, due));
+        }
+    }
+
+    private static QueuedHold queued(LoanHold hold) {
+        return new QueuedHold(hold.getId(), hold.getBook().getId(), hold.getRequestedAt());
+    }
+
+    /**
+     * Runs a loan change under the locks of the books it touches, in a single transaction, so the
+     * availability check and the loanedCopies write cannot interleave with another booking.
+     * Optimistic conflicts (e.g. another instance writing the same book) are retried a few times.
+     */
+    private void book(Collection<Long> bookIds, Runnable change) {
+        bookingLocks.withBooks(bookIds, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> change.run());
+                    return null;
+                } catch (OptimisticLockingFailureException e) {
+                    // A loan saved from an older version is stale for good; only book conflicts are worth a retry
+                    if (isLoanConflict(e)) throw e;
+                    // The retry must read the books from the database, not the cached copies that lost
+                    catalogCache.booksChanged(bookIds);
+                    if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                        throw rejected("concurrent_modification", "The book was modified concurrently, please try again");
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // The loaned_copies <= total_copies check, when a write bypassed the locks; other violations
+                    // (e.g. the book or user deleted meanwhile) are not about copies and go through as they are
+                    if (violates(e, COPIES_CHECK)) {
+                        throw rejected("no_copies", "No available copies for this book at the selected dates");
+                    }
+                    throw e;
+                }
+            }
         });
     }
 
-    private boolean isAdmin() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth != null && auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    // Business counters next to the library.crud.* timers: why bookings fail, not just how often
+
+    private IllegalArgumentException rejected(String reason, String message) {
+        counter("library.loans.rejected", "reason", reason).increment();
+        return new IllegalArgumentException(message);
+    }
+
+    private SecurityException denied(String message) {
+        counter("library.loans.denied").increment();
+        return new SecurityException(message);
+    }
+
+    // Drivers report the name with varying case and surrounding text
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase().contains(constraint);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLoanConflict(OptimisticLockingFailureException e) {
+        return e instanceof ObjectOptimisticLockingFailureException conflict
+                && Loan.class.getName().equals(conflict.getPersistentClassName());
     }
 
-    private String getCurrentUserEmail() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth != null ? auth.getName() : null;
+    private static Long bookIdOf(Loan loan) {
+        return loan.getBook() != null ? loan.getBook().getId() : null;
     }
 }
@@ -0,0 +1,100 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.enums.LoanStatus;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Moves stored loan statuses along RESERVED -> ACTIVE -> RETURNED as their dates are reached,
+ * with set-based updates of at most batch-size loans per transaction, and recounts loanedCopies
+ * of the books involved, whose holds are then served from the copies returned. Runs at day
+ * rollover and at startup, which catches up on the days the application was down.
+ */
+@Component
+public class LoanStatusTransitions {
+
+    private static final List<LoanStatus> OPEN = List.of(LoanStatus.RESERVED, LoanStatus.ACTIVE);
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardStats dashboard;
+    private final DataVersions dataVersions;
+    private final LoanService loanService;
+    private final MeterRegistry meterRegistry;
+    private final Map<LoanStatus, Counter> transitionCounters = new ConcurrentHashMap<>();
+    private final int batchSize;
+
+    public LoanStatusTransitions(LoanRepository loanRepository, BookRepository bookRepository,
+                                 TransactionTemplate transactionTemplate, DashboardStats dashboard, DataVersions dataVersions,
+                                 LoanService loanService, MeterRegistry meterRegistry,
+                                 @Value("${library.loans.status-transition.batch-size:1000}") int batchSize) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dashboard = dashboard;
+        this.dataVersions = dataVersions;
+        this.loanService = loanService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.loans.status-transition.cron:0 0 0 * * *}")
+    public void run() {
+        run(LocalDate.now());
+    }
+
+    // Returns the number of loans moved
+    public int run(LocalDate today) {
+        // Returns first: a reservation whose whole period passed while the job was not running goes straight to RETURNED
+        Set<Long> returnedBooks = new HashSet<>();
+        int moved = transition(LoanStatus.RETURNED, batch -> loanRepository.findIdsDueForReturn(OPEN, today, batch), returnedBooks)
+                + transition(LoanStatus.ACTIVE, batch -> loanRepository.findIdsDueForActivation(LoanStatus.RESERVED, today, batch), new HashSet<>());
+        // Bulk updates bypass the service hooks
+        dashboard.reconcile();
+        if (moved > 0) dataVersions.changed("loan");
+        loanService.allocateHolds(returnedBooks);
+        return moved;
+    }
+
+    private int transition(LoanStatus target, Function<Pageable, List<Long>> due, Set<Long> books) {
+        int moved = 0;
+        while (true) {
+            // Moved loans no longer match the query, so every batch starts from the first page
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = due.apply(PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    loanRepository.updateStatus(batch, target);
+                    List<Long> bookIds = loanRepository.findBookIds(batch);
+                    bookRepository.recountLoanedCopies(bookIds);
+                    books.addAll(bookIds);
+                }
+                return batch;
+            });
+            if (ids == null || ids.isEmpty()) break;
+            moved += ids.size();
+        }
+        transitionCounters.computeIfAbsent(target, status -> Counter.builder("library.loans.status.transitions")
+                .tag("status", status.name()).register(meterRegistry)).increment(moved);
+        return moved;
+    }
+}
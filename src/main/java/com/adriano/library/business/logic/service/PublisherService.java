@@ -1,15 +1,33 @@
 package com.adriano.library.business.logic.service;
 
+import com.adriano.library.business.domain.dto.PublisherRow;
 import com.adriano.library.business.domain.entity.Publisher;
 import com.adriano.library.business.persistence.repository.PublisherRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Service
 public class PublisherService extends BaseService<Publisher, Long> {
 
-    public PublisherService(PublisherRepository repository) {
+    private final PublisherRepository publisherRepository;
+    private final CatalogSearchService catalogSearch;
+    private final CatalogCache catalogCache;
+
+    public PublisherService(PublisherRepository repository, CatalogSearchService catalogSearch, CatalogCache catalogCache) {
         super(repository);
+        this.publisherRepository = repository;
+        this.catalogSearch = catalogSearch;
+        this.catalogCache = catalogCache;
+    }
+
+    public Window<PublisherRow> findRows(Long cursor, int size, Sort sort) {
+        return publisherRepository.findRows(cursor, size, sort);
     }
 
     @Override
@@ -29,5 +47,64 @@ public class PublisherService extends BaseService<Publisher, Long> {
     public void deleteById(Long id) {
         super.deleteById(id);
     }
-}
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveAll(Collection<Publisher> entities) {
+        super.saveAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateAll(Map<Long, Publisher> entities) {
+        super.updateAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteAllById(Collection<Long> ids) {
+        super.deleteAllById(ids);
+    }
+
+    // The book this publisher belonged to before the change, whose cached publishers list is now wrong
+
+    @Override
+    public void beforeUpdate(Long id, Publisher entity) {
+        evictPreviousBook(id);
+    }
+
+    @Override
+    public void beforeDelete(Long id) {
+        evictPreviousBook(id);
+    }
+
+    @Override
+    public void afterSave(Publisher entity) {
+        TransactionCallbacks.afterCommit(() -> {
+            catalogSearch.publisherChanged(entity);
+            catalogCache.publishersChanged(bookIdOf(entity));
+        });
+    }
+
+    @Override
+    public void afterUpdate(Publisher entity) {
+        TransactionCallbacks.afterCommit(() -> {
+            catalogSearch.publisherChanged(entity);
+            catalogCache.publishersChanged(bookIdOf(entity));
+        });
+    }
+
+    @Override
+    public void afterDelete(Long id) {
+        TransactionCallbacks.afterCommit(() -> catalogSearch.publisherDeleted(id));
+    }
+
+    private void evictPreviousBook(Long id) {
+        publisherRepository.findById(id).map(this::bookIdOf)
+                .ifPresent(bookId -> TransactionCallbacks.afterCommit(() -> catalogCache.publishersChanged(bookId)));
+    }
+
+    private Long bookIdOf(Publisher publisher) {
+        return publisher.getBook() != null ? publisher.getBook().getId() : null;
+    }
+}
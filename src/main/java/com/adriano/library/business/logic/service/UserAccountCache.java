@@ -0,0 +1,49 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.UserAccount;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicted cache of user accounts by email. Holds immutable snapshots rather than
+ * User entities so no caller can mutate a shared instance; UserService evicts on update/delete.
+ */
+@Component
+public class UserAccountCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserAccount> accounts;
+
+    public UserAccountCache(UserRepository userRepository,
+                            @Value("${library.users.cache.max-size:1000}") long maxSize,
+                            @Value("${library.users.cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<UserAccount> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        UserAccount cached = accounts.getIfPresent(email);
+        if (cached != null) return Optional.of(cached);
+        // Loaded outside the cache: get(key, loader) would run the query inside a map-bin monitor,
+        // pinning the carrier of a virtual thread. Unknown emails are not cached, so a user
+        // created later is found right away.
+        Optional<UserAccount> account = userRepository.findByEmail(email)
+                .map(user -> new UserAccount(user.getId(), user.getEmail(), user.getPassword(), user.getUserRole()));
+        account.ifPresent(found -> accounts.put(email, found));
+        return account;
+    }
+
+    public void evict(Long userId) {
+        accounts.asMap().values().removeIf(account -> account.id().equals(userId));
+    }
+}
@@ -1,11 +1,19 @@
 package com.adriano.library.business.logic.service;
 
+import com.adriano.library.business.domain.dto.Suggestion;
 import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.event.UserDeleted;
+import com.adriano.library.business.persistence.repository.BaseRepository;
 import com.adriano.library.business.persistence.repository.UserRepository;
+import com.adriano.library.util.TransactionCallbacks;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,12 +22,17 @@ public class UserService extends BaseService<User, Long> {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ChangePasswordService changePasswordService;
+    private final UserAccountCache userAccounts;
+    private final DomainEventBus events;
 
-    public UserService(UserRepository repository, PasswordEncoder passwordEncoder, ChangePasswordService changePasswordService) {
+    public UserService(UserRepository repository, PasswordEncoder passwordEncoder, ChangePasswordService changePasswordService,
+                       UserAccountCache userAccounts, DomainEventBus events) {
         super(repository);
         this.userRepository = repository;
         this.passwordEncoder = passwordEncoder;
         this.changePasswordService = changePasswordService;
+        this.userAccounts = userAccounts;
+        this.events = events;
     }
 
     @Override
@@ -40,6 +53,34 @@ public class UserService extends BaseService<User, Long> {
         super.deleteById(id);
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveAll(Collection<User> entities) {
+        super.saveAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateAll(Map<Long, User> entities) {
+        super.updateAll(entities);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteAllById(Collection<Long> ids) {
+        super.deleteAllById(ids);
+    }
+
+    // Loan form picker: emails starting with the query
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = query.strip();
+        if (prefix.isEmpty()) return List.of();
+        return userRepository.suggestByEmail(BaseRepository.prefixPattern(prefix), PageRequest.of(0, limit)).stream()
+                .map(user -> new Suggestion(user.getId(), user.getEmail(), user.getUserRole().name(), null))
+                .toList();
+    }
+
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -52,16 +93,30 @@ public class UserService extends BaseService<User, Long> {
         }
     }
 
-    // Hook: before updating, if password blank keep existing; otherwise encode if needed
+    // Hook: before updating, if password blank keep existing; otherwise encode if needed.
+    // Read as a column: a User loaded earlier in the request has had its password blanked by afterRead
     @Override
     public void beforeUpdate(Long id, User entity) {
         if (entity.getPassword() == null || entity.getPassword().isEmpty()) {
-            userRepository.findById(id).ifPresent(existing -> entity.setPassword(existing.getPassword()));
+            userRepository.findPasswordById(id).ifPresent(entity::setPassword);
         } else if (changePasswordService.isNotEncoded(entity.getPassword())) {
             entity.setPassword(passwordEncoder.encode(entity.getPassword()));
         }
     }
 
+    // Hooks: drop cached accounts once the change is visible to the next lookup
+    @Override
+    public void afterUpdate(User entity) {
+        Long id = entity.getId();
+        TransactionCallbacks.afterCommit(() -> userAccounts.evict(id));
+    }
+
+    @Override
+    public void afterDelete(Long id) {
+        TransactionCallbacks.afterCommit(() -> userAccounts.evict(id));
+        events.publish(new UserDeleted(id));
+    }
+
     // Hook: after reading a user, clear password field
     @Override
     public void afterRead(User entity) {
@@ -1,9 +1,16 @@
 package com.adriano.library.business.persistence.repository;
 
+import com.adriano.library.business.domain.dto.AuthorRow;
 import com.adriano.library.business.domain.entity.Author;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AuthorRepository extends BaseRepository<Author, Long> {
-}
+public interface AuthorRepository extends BaseRepository<Author, Long>, RowQueryRepository {
 
+    default Window<AuthorRow> findRows(Long cursor, int size, Sort sort) {
+        return findRows(Author.class, AuthorRow.class, (author, cb) -> cb.construct(AuthorRow.class,
+                author.get("id"), author.get("name"), author.join("book").get("title")), null, cursor, size, sort);
+    }
+}
@@ -2,8 +2,17 @@ package com.adriano.library.business.persistence.repository;
 
 import com.adriano.library.business.domain.entity.BaseEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
 @NoRepositoryBean
-public interface BaseRepository<T extends BaseEntity, ID> extends JpaRepository<T, ID> {
+public interface BaseRepository<T extends BaseEntity, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    // Rows per round trip of the export streams; MySQL only honours it with useCursorFetch=true
+    String STREAM_FETCH_SIZE = "1000";
+
+    // LIKE pattern matching values that start with prefix, for queries declaring ESCAPE '!'
+    static String prefixPattern(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
 }
@@ -1,9 +1,74 @@
 package com.adriano.library.business.persistence.repository;
 
+import com.adriano.library.business.domain.dto.BookFacts;
+import com.adriano.library.business.domain.dto.BookRow;
+import com.adriano.library.business.domain.dto.Suggestion;
 import com.adriano.library.business.domain.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface BookRepository extends BaseRepository<Book, Long> {
-}
+public interface BookRepository extends BaseRepository<Book, Long>, RowQueryRepository {
+
+    boolean existsByImagePath(String imagePath);
+
+    // Book pickers on the author and publisher forms. Cached ids are dropped on any write to
+    // the book table, loanedCopies included, and the rows come from the book region
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Book> findAll();
+
+    // Typeahead: the pattern is a prefix followed by '%' (wildcards in it escaped with '!'), so each
+    // query is a range scan of idx_title / idx_isbn
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.Suggestion(b.id, b.title, b.isbn, b.totalCopies - b.loanedCopies)
+            FROM Book b WHERE b.title LIKE :pattern ESCAPE '!' ORDER BY b.title, b.id
+            """)
+    List<Suggestion> suggestByTitle(@Param("pattern") String pattern, Pageable limit);
 
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.Suggestion(b.id, b.title, b.isbn, b.totalCopies - b.loanedCopies)
+            FROM Book b WHERE b.isbn LIKE :pattern ESCAPE '!' ORDER BY b.isbn
+            """)
+    List<Suggestion> suggestByIsbn(@Param("pattern") String pattern, Pageable limit);
+
+    @Query("SELECT new com.adriano.library.business.domain.dto.BookFacts(b.id, b.totalCopies, b.loanedCopies) FROM Book b")
+    List<BookFacts> findAllFacts();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.BookRow(b.id, b.title, b.isbn, b.totalCopies,
+                b.loanedCopies, b.imagePath)
+            FROM Book b ORDER BY b.id
+            """)
+    Stream<BookRow> streamRows();
+
+    // loanedCopies counts the copies out today, i.e. the book's ACTIVE loans. The version is left
+    // alone, as for every loanedCopies change (see Book), so open edit forms stay valid
+    @Modifying
+    @Query("""
+            UPDATE Book b SET b.loanedCopies = (SELECT CAST(COUNT(l) AS Integer) FROM Loan l WHERE l.book.id = b.id
+                AND l.status = com.adriano.library.business.domain.enums.LoanStatus.ACTIVE)
+            WHERE b.id IN :ids
+            """)
+    int recountLoanedCopies(@Param("ids") Collection<Long> ids);
+
+    default Window<BookRow> findRows(Long cursor, int size, Sort sort) {
+        return findRows(Book.class, BookRow.class, (book, cb) -> cb.construct(BookRow.class,
+                book.get("id"), book.get("title"), book.get("isbn"),
+                book.get("totalCopies"), book.get("loanedCopies"), book.get("imagePath")), null, cursor, size, sort);
+    }
+}
@@ -0,0 +1,33 @@
+package com.adriano.library.business.persistence.repository;
+
+import com.adriano.library.business.domain.dto.QueuedHold;
+import com.adriano.library.business.domain.entity.LoanHold;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanHoldRepository extends JpaRepository<LoanHold, Long> {
+
+    boolean existsByBookIdAndUserIdAndStatus(Long bookId, Long userId, HoldStatus status);
+
+    @Query("SELECT new com.adriano.library.business.domain.dto.QueuedHold(h.id, h.book.id, h.requestedAt) " +
+            "FROM LoanHold h WHERE h.status = :status")
+    List<QueuedHold> findQueued(@Param("status") HoldStatus status);
+
+    @Query("SELECT new com.adriano.library.business.domain.dto.QueuedHold(h.id, h.book.id, h.requestedAt) " +
+            "FROM LoanHold h WHERE h.status = :status AND h.expiresOn < :today")
+    List<QueuedHold> findLapsed(@Param("status") HoldStatus status, @Param("today") LocalDate today);
+
+    // Only rows still in status 'from': one served meanwhile keeps its status
+    @Modifying
+    @Query("UPDATE LoanHold h SET h.status = :to, h.version = h.version + 1 WHERE h.id IN :ids AND h.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+}
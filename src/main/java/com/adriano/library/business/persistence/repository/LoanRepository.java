@@ -1,11 +1,119 @@
 package com.adriano.library.business.persistence.repository;
 
+import com.adriano.library.business.domain.dto.LoanFacts;
+import com.adriano.library.business.domain.dto.LoanInterval;
+import com.adriano.library.business.domain.dto.LoanRow;
+import com.adriano.library.business.domain.dto.ReminderLine;
 import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LoanRepository extends BaseRepository<Loan, Long> {
+public interface LoanRepository extends BaseRepository<Loan, Long>, RowQueryRepository {
     List<Loan> findByUserId(Long userId);
+
+    // Paged counterpart of findByUserId, for keyset windows
+    static Specification<Loan> byUserId(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    static Specification<Loan> byStatus(LoanStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    long countByStatus(LoanStatus status);
+
+    // Loans of one user, or of everyone when userId is null
+    default Window<LoanRow> findRows(Long userId, Long cursor, int size, Sort sort) {
+        return findRows(userId, null, cursor, size, sort);
+    }
+
+    // ... narrowed to one status when given
+    default Window<LoanRow> findRows(Long userId, LoanStatus status, Long cursor, int size, Sort sort) {
+        Specification<Loan> filter = userId != null ? byUserId(userId) : null;
+        if (status != null) {
+            filter = filter != null ? filter.and(byStatus(status)) : byStatus(status);
+        }
+        return findRows(Loan.class, LoanRow.class, (loan, cb) -> {
+            Join<Object, Object> book = loan.join("book");
+            return cb.construct(LoanRow.class, loan.get("id"), book.get("title"), book.get("isbn"),
+                    book.get("imagePath"), loan.join("user").get("email"), loan.get("loanDate"), loan.get("returnDate"),
+                    loan.get("status"));
+        }, filter, cursor, size, sort);
+    }
+
+    // Export rows in id order, read off the cursor as they are written out; a user's own loans when userId is set
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.LoanRow(l.id, b.title, b.isbn, b.imagePath, u.email,
+                l.loanDate, l.returnDate, l.status)
+            FROM Loan l JOIN l.book b JOIN l.user u
+            WHERE :userId IS NULL OR u.id = :userId
+            ORDER BY l.id
+            """)
+    Stream<LoanRow> streamRows(@Param("userId") Long userId);
+
+    // Status transitions (LoanStatusTransitions): ids of loans whose stored status is behind their dates,
+    // served by idx_loan_status_return_date and idx_loan_status_loan_date
+
+    @Query("SELECT l.id FROM Loan l WHERE l.status IN :open AND l.returnDate < :today ORDER BY l.id")
+    List<Long> findIdsDueForReturn(@Param("open") Collection<LoanStatus> open, @Param("today") LocalDate today, Pageable batch);
+
+    @Query("SELECT l.id FROM Loan l WHERE l.status = :reserved AND l.loanDate <= :today AND l.returnDate >= :today ORDER BY l.id")
+    List<Long> findIdsDueForActivation(@Param("reserved") LoanStatus reserved, @Param("today") LocalDate today, Pageable batch);
+
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = :status, l.version = l.version + 1 WHERE l.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") LoanStatus status);
+
+    @Query("SELECT DISTINCT l.book.id FROM Loan l WHERE l.id IN :ids")
+    List<Long> findBookIds(@Param("ids") Collection<Long> ids);
+
+    // Reminders (LoanReminders): a chunk of users with a loan ending in [from, to], then those users' loans.
+    // The return date range is served by idx_loan_status_return_date
+
+    @Query("""
+            SELECT DISTINCT l.user.id FROM Loan l
+            WHERE l.status IN :statuses AND l.returnDate BETWEEN :from AND :to AND l.user.id > :afterUserId
+            ORDER BY l.user.id
+            """)
+    List<Long> findUserIdsWithReturnBetween(@Param("statuses") Collection<LoanStatus> statuses,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                            @Param("afterUserId") long afterUserId, Pageable chunk);
+
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.ReminderLine(l.id, u.id, u.email, b.title, l.returnDate)
+            FROM Loan l JOIN l.user u JOIN l.book b
+            WHERE u.id IN :userIds AND l.status IN :statuses AND l.returnDate BETWEEN :from AND :to
+            ORDER BY u.id, l.returnDate, l.id
+            """)
+    List<ReminderLine> findReminderLines(@Param("userIds") Collection<Long> userIds,
+                                         @Param("statuses") Collection<LoanStatus> statuses,
+                                         @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.adriano.library.business.domain.dto.LoanInterval(l.id, l.book.id, l.loanDate, l.returnDate) FROM Loan l")
+    List<LoanInterval> findAllIntervals();
+
+    // Returned loans count for nothing on the dashboard, and they are most of the table
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.LoanFacts(l.id, l.book.id, l.user.id, l.status)
+            FROM Loan l WHERE l.status IN :open""")
+    List<LoanFacts> findOpenFacts(@Param("open") Collection<LoanStatus> open);
 }
@@ -1,9 +1,16 @@
 package com.adriano.library.business.persistence.repository;
 
+import com.adriano.library.business.domain.dto.PublisherRow;
 import com.adriano.library.business.domain.entity.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PublisherRepository extends BaseRepository<Publisher, Long> {
-}
+public interface PublisherRepository extends BaseRepository<Publisher, Long>, RowQueryRepository {
 
+    default Window<PublisherRow> findRows(Long cursor, int size, Sort sort) {
+        return findRows(Publisher.class, PublisherRow.class, (publisher, cb) -> cb.construct(PublisherRow.class,
+                publisher.get("id"), publisher.get("name"), publisher.join("book").get("title")), null, cursor, size, sort);
+    }
+}
@@ -0,0 +1,11 @@
+package com.adriano.library.business.persistence.repository;
+
+import com.adriano.library.business.domain.entity.ReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, LocalDate> {
+}
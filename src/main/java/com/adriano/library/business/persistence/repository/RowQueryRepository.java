@@ -0,0 +1,27 @@
+package com.adriano.library.business.persistence.repository;
+
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset pages of constructor projections: the joined columns a view needs, selected in a
+ * single statement. The cursor is the id of the last row shown; its sort value is looked up
+ * by a subquery instead of a separate round trip.
+ * <p>
+ * Repositories declare it directly: Spring Data only attaches the Impl fragment to interfaces a
+ * repository extends itself, not through the @NoRepositoryBean BaseRepository.
+ */
+public interface RowQueryRepository {
+
+    @FunctionalInterface
+    interface RowSelection<T, R> {
+        CompoundSelection<R> select(Root<T> root, CriteriaBuilder cb);
+    }
+
+    <T, R> Window<R> findRows(Class<T> type, Class<R> rowType, RowSelection<T, R> selection,
+                              Specification<T> filter, Long cursor, int size, Sort sort);
+}
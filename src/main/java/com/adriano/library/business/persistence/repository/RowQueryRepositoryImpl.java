@@ -0,0 +1,68 @@
+package com.adriano.library.business.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RowQueryRepositoryImpl implements RowQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T, R> Window<R> findRows(Class<T> type, Class<R> rowType, RowSelection<T, R> selection,
+                                     Specification<T> filter, Long cursor, int size, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(rowType);
+        Root<T> root = query.from(type);
+        query.select(selection.select(root, cb));
+
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        List<Predicate> where = new ArrayList<>();
+        Predicate filtered = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (filtered != null) where.add(filtered);
+        if (cursor != null) where.add(after(type, root, query, cb, order, cursor));
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(order.isAscending()
+                ? List.of(cb.asc(root.get(order.getProperty())), cb.asc(root.get("id")))
+                : List.of(cb.desc(root.get(order.getProperty())), cb.desc(root.get("id"))));
+
+        // One extra row tells whether there is a next page
+        List<R> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        List<R> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        // Callers continue from the id of the last row, so positions are only nominal
+        return Window.from(content, ScrollPosition::offset, hasNext);
+    }
+
+    // Rows strictly after the cursor row in (sort column, id) order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate after(Class<T> type, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                       Sort.Order order, Long cursor) {
+        Path<Long> id = root.get("id");
+        Predicate afterId = order.isAscending() ? cb.greaterThan(id, cursor) : cb.lessThan(id, cursor);
+        if (order.getProperty().equals("id")) {
+            return afterId;
+        }
+
+        Subquery<Comparable> cursorValue = query.subquery(Comparable.class);
+        Root<T> cursorRow = cursorValue.from(type);
+        cursorValue.select(cursorRow.get(order.getProperty())).where(cb.equal(cursorRow.get("id"), cursor));
+
+        Path<Comparable> column = root.get(order.getProperty());
+        Predicate beyond = order.isAscending() ? cb.greaterThan(column, cursorValue) : cb.lessThan(column, cursorValue);
+        return cb.or(beyond, cb.and(cb.equal(column, cursorValue), afterId));
+    }
+}
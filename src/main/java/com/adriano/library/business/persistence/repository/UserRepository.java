@@ -1,11 +1,36 @@
 package com.adriano.library.business.persistence.repository;
 
+import com.adriano.library.business.domain.dto.UserRow;
 import com.adriano.library.business.domain.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends BaseRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Typeahead by email prefix, a range scan of the unique email index (pattern as in BookRepository)
+    @Query("""
+            SELECT new com.adriano.library.business.domain.dto.UserRow(u.id, u.email, u.userRole)
+            FROM User u WHERE u.email LIKE :pattern ESCAPE '!' ORDER BY u.email
+            """)
+    List<UserRow> suggestByEmail(@Param("pattern") String pattern, Pageable limit);
+
+    // The stored hash, whatever state a managed User of this id is in
+    @Query("SELECT u.password FROM User u WHERE u.id = :id")
+    Optional<String> findPasswordById(Long id);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.adriano.library.business.domain.dto.UserRow(u.id, u.email, u.userRole) FROM User u ORDER BY u.id")
+    Stream<UserRow> streamRows();
 }
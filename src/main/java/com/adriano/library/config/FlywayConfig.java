@@ -3,15 +3,19 @@ package com.adriano.library.config;
 import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 /**
  * Configuration to recreate the database from scratch on each run. This will delete all data each time.
- * WARNING: Only use in development.
+ * WARNING: Only use in development, and only under the reset-db profile (which also lifts
+ * spring.flyway.clean-disabled). Without it, an enabled Flyway validates the applied migrations
+ * and runs the new ones only.
  */
 @Configuration
 public class FlywayConfig {
 
     @Bean
+    @Profile("reset-db")
     public FlywayMigrationStrategy cleanMigrateStrategy() {
         return flyway -> {
             System.out.println("🗑️ Cleaning database...");
@@ -1,33 +1,55 @@
 package com.adriano.library.config;
 
 import com.adriano.library.business.logic.service.CustomUserDetailsService;
+import com.adriano.library.util.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final List<String> SCRAPE_PATHS = List.of("/actuator/health", "/actuator/metrics");
+
     private final CustomUserDetailsService userDetailsService;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
+    // BCrypt on a bounded pool; cost is library.security.bcrypt.strength, calibrated to the target latency only if 0
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${library.security.bcrypt.strength:12}") int strength,
+                                                 @Value("${library.security.bcrypt.target-latency:250ms}") Duration targetLatency,
+                                                 @Value("${library.security.hashing.threads:0}") int threads,
+                                                 @Value("${library.security.hashing.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${library.security.hashing.timeout:10s}") Duration timeout,
+                                                 MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                strength > 0 ? strength : BoundedPasswordEncoder.calibrate(targetLatency),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
@@ -35,18 +57,48 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // JSON API (production profile): HTTP Basic on the first request, then the session cookie, so a
+    // kiosk poll that keeps its cookie costs no password hash; a repeated Basic header for the
+    // session's user is not checked again. Writes sent with the Basic header need no CSRF token,
+    // writes riding on the cookie alone do.
+    // Ahead of prodSecurity, which would otherwise answer API calls with the login page.
+    @Bean
+    @Order(1)
+    @Profile("prod")
+    public SecurityFilterChain apiSecurity(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .userDetailsService(userDetailsService)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/v1/users/**").hasRole("ADMIN")
+                        // Catalog reads are open to USER (kiosks poll availability); writes are checked by the services
+                        .requestMatchers("/api/v1/books/**", "/api/v1/authors/**", "/api/v1/publishers/**", "/api/v1/loans/**").hasAnyRole("USER", "ADMIN")
+                        .anyRequest().denyAll()
+                )
+                .httpBasic(basic -> basic.securityContextRepository(new HttpSessionSecurityContextRepository()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+                .csrf(csrf -> csrf.requireCsrfProtectionMatcher(request ->
+                        !SAFE_METHODS.contains(request.getMethod()) && request.getHeader(HttpHeaders.AUTHORIZATION) == null));
+
+        return http.build();
+    }
+
     // production profile
     @Bean
     @Profile("prod")
-    public SecurityFilterChain prodSecurity(HttpSecurity http) throws Exception {
+    public SecurityFilterChain prodSecurity(HttpSecurity http,
+                                            @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
                 .userDetailsService(userDetailsService)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/css/**", "/js/**", "/login").permitAll()
+                        // Actuator on its own port, bound to loopback (management.server.*): local health checks
+                        // and metric scrapes need no login, its other endpoints fall through to ADMIN below
+                        .requestMatchers(request -> request.getLocalPort() == managementPort && isScrape(request)).permitAll()
+                        .requestMatchers("/css/**", "/js/**", "/login", "/actuator/health").permitAll()
                         // ADMIN-only endpoints
-                        .requestMatchers("/books/**", "/authors/**", "/publishers/**", "/users/**", "/uploads/**").hasRole("ADMIN")
-                        // USER can access loans and change password
-                        .requestMatchers("/loans/**", "/change-password").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/books/**", "/authors/**", "/publishers/**", "/users/**", "/search", "/actuator/**").hasRole("ADMIN")
+                        // USER can access loans, the book covers they show, and change password
+                        .requestMatchers("/loans/**", "/uploads/**", "/change-password").hasAnyRole("USER", "ADMIN")
                         // other requests require authentication
                         .anyRequest().authenticated()
                 )
@@ -66,6 +118,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static boolean isScrape(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return SCRAPE_PATHS.stream().anyMatch(p -> path.equals(p) || path.startsWith(p + "/"));
+    }
+
     // development profile
     @Bean
     @Profile("dev")
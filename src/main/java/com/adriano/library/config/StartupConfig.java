@@ -0,0 +1,29 @@
+package com.adriano.library.config;
+
+import com.adriano.library.business.logic.service.BookAvailabilityIndex;
+import com.adriano.library.business.logic.service.CatalogSearchService;
+import com.adriano.library.business.logic.service.DashboardStats;
+import com.adriano.library.business.logic.service.DomainEventBus;
+import com.adriano.library.business.logic.service.HoldQueue;
+import com.adriano.library.business.logic.service.HoldSweep;
+import com.adriano.library.business.logic.service.LoanReminders;
+import com.adriano.library.business.logic.service.LoanStatusTransitions;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans kept eager when spring.main.lazy-initialization is on (fast profile). Scheduled jobs are
+ * only registered once their bean exists; the in-memory indexes and totals are loaded from the
+ * database, which should happen at startup rather than in the first request that needs them.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(LoanStatusTransitions.class, LoanReminders.class,
+                HoldSweep.class, DashboardStats.class, CatalogSearchService.class, BookAvailabilityIndex.class,
+                HoldQueue.class, DomainEventBus.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.BaseEntity;
+import com.adriano.library.business.logic.service.BaseService;
+import com.adriano.library.business.logic.service.DataVersions;
+import com.adriano.library.controller.view.KeysetPaging;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * JSON counterpart of BaseController, on the same services, so the same @PreAuthorize rules and
+ * hooks apply. Lists carry a weak ETag built from the type's DataVersions counter and the query,
+ * checked against If-None-Match before anything is read: an unchanged list costs no query. Single
+ * rows carry their @Version as a strong ETag, which PUT and DELETE accept in If-Match.
+ *
+ * @param <J> the JSON representation
+ */
+public abstract class ApiController<T extends BaseEntity, J> {
+
+    // Revalidate on every use; private, as loan lists depend on who asks
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    protected final BaseService<T, Long> service;
+    private final DataVersions dataVersions;
+    private final String type; // e.g., "book", as in DataVersions
+
+    protected ApiController(BaseService<T, Long> service, DataVersions dataVersions, String type) {
+        this.service = service;
+        this.dataVersions = dataVersions;
+        this.type = type;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiPage<J>> list(@RequestParam(required = false) Long cursor,
+                                           @RequestParam(defaultValue = KeysetPaging.DEFAULT_SIZE) int size,
+                                           @RequestParam(defaultValue = "id") String sort,
+                                           ServletWebRequest request) {
+        int pageSize = KeysetPaging.size(size);
+        Sort order = KeysetPaging.sort(sort, sortableColumns());
+
+        DataVersions.Version version = dataVersions.current(type);
+        String query = Integer.toHexString(Objects.hash(cursor, pageSize, order.toString(), request.getRemoteUser()));
+        String etag = "W/\"" + type + "-" + dataVersions.tag(version) + "-" + query + "\"";
+        if (request.checkNotModified(etag, version.modified().toEpochMilli())) {
+            return null; // 304, headers already set
+        }
+
+        Window<T> window = service.findWindow(cursor, pageSize, order);
+        List<T> items = window.getContent();
+        Long nextCursor = window.hasNext() && !items.isEmpty() ? items.get(items.size() - 1).getId() : null;
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(new ApiPage<>(items.stream().map(this::toJson).toList(), nextCursor));
+    }
+
+    // The row is read for its version anyway; Spring answers If-None-Match from the ETag set here
+    @GetMapping("/{id}")
+    public ResponseEntity<J> get(@PathVariable Long id) {
+        T entity = service.findById(id).orElseThrow();
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etagOf(entity)).body(toJson(entity));
+    }
+
+    @PostMapping
+    public ResponseEntity<J> create(@RequestBody J body) {
+        T entity = toEntity(body, null);
+        entity.setId(null);
+        service.save(entity);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").build(entity.getId()))
+                .eTag(etagOf(entity))
+                .body(toJson(entity));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<J> update(@PathVariable Long id, @RequestBody J body,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        T existing = service.findById(id).orElseThrow();
+        checkMatch(existing, ifMatch);
+        T entity = toEntity(body, existing);
+        // The version matched above (or just read, without If-Match): a write committed since then fails the update
+        entity.setVersion(existing.getVersion());
+        try {
+            service.update(id, entity);
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) throw e; // 409
+            throw preconditionFailed(service.findById(id).orElseThrow());
+        }
+        T updated = service.findById(id).orElseThrow();
+        return ResponseEntity.ok().eTag(etagOf(updated)).body(toJson(updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        T existing = service.findById(id).orElseThrow();
+        checkMatch(existing, ifMatch);
+        service.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    protected abstract J toJson(T entity);
+
+    // existing is null when creating; fields the JSON does not carry are taken from it
+    protected abstract T toEntity(J body, T existing);
+
+    // Columns the list may be sorted by, besides id
+    protected Set<String> sortableColumns() {
+        return Set.of("id");
+    }
+
+    private static String etagOf(BaseEntity entity) {
+        return "\"" + entity.getVersion() + "\"";
+    }
+
+    // Without If-Match the write goes ahead against the version the request just read
+    private static void checkMatch(BaseEntity existing, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return;
+        String current = etagOf(existing);
+        boolean matches = Arrays.stream(ifMatch.split(",")).map(String::trim).anyMatch(current::equals);
+        if (!matches) {
+            throw preconditionFailed(existing);
+        }
+    }
+
+    private static ResponseStatusException preconditionFailed(BaseEntity current) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "The resource has changed, its ETag is now " + etagOf(current));
+    }
+}
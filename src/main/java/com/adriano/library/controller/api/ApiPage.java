@@ -0,0 +1,7 @@
+package com.adriano.library.controller.api;
+
+import java.util.List;
+
+// A keyset page: nextCursor is passed as ?cursor= for the following page, null on the last one
+public record ApiPage<J>(List<J> items, Long nextCursor) {
+}
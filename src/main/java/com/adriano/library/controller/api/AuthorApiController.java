@@ -0,0 +1,42 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Author;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.logic.service.AuthorService;
+import com.adriano.library.business.logic.service.DataVersions;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/authors")
+public class AuthorApiController extends ApiController<Author, AuthorJson> {
+
+    public AuthorApiController(AuthorService service, DataVersions dataVersions) {
+        super(service, dataVersions, "author");
+    }
+
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "name");
+    }
+
+    @Override
+    protected AuthorJson toJson(Author author) {
+        return AuthorJson.of(author);
+    }
+
+    @Override
+    protected Author toEntity(AuthorJson body, Author existing) {
+        Author author = new Author();
+        author.setId(body.id());
+        author.setName(body.name());
+        if (body.bookId() != null) {
+            Book book = new Book();
+            book.setId(body.bookId());
+            author.setBook(book);
+        }
+        return author;
+    }
+}
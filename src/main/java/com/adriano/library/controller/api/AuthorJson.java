@@ -0,0 +1,10 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Author;
+
+public record AuthorJson(Long id, String name, Long bookId) {
+
+    static AuthorJson of(Author author) {
+        return new AuthorJson(author.getId(), author.getName(), author.getBook().getId());
+    }
+}
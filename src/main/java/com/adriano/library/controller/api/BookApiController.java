@@ -0,0 +1,41 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.logic.service.BookService;
+import com.adriano.library.business.logic.service.DataVersions;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+// Readable by USER too, for availability; writes are ADMIN-only in BookService
+@RestController
+@RequestMapping("/api/v1/books")
+public class BookApiController extends ApiController<Book, BookJson> {
+
+    public BookApiController(BookService service, DataVersions dataVersions) {
+        super(service, dataVersions, "book");
+    }
+
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "title", "isbn");
+    }
+
+    @Override
+    protected BookJson toJson(Book book) {
+        return BookJson.of(book);
+    }
+
+    @Override
+    protected Book toEntity(BookJson body, Book existing) {
+        Book book = new Book();
+        book.setId(body.id());
+        book.setTitle(body.title());
+        book.setIsbn(body.isbn());
+        book.setTotalCopies(body.totalCopies());
+        // loanedCopies stays null: set to 0 on save, preserved on update (BookService)
+        book.setImagePath(existing != null ? existing.getImagePath() : null);
+        return book;
+    }
+}
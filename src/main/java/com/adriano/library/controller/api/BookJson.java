@@ -0,0 +1,16 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// loanedCopies and availableCopies are kept by LoanService; covers are uploaded through the book form
+public record BookJson(Long id, String title, String isbn, Integer totalCopies,
+                       @JsonProperty(access = JsonProperty.Access.READ_ONLY) Integer loanedCopies,
+                       @JsonProperty(access = JsonProperty.Access.READ_ONLY) Integer availableCopies,
+                       @JsonProperty(access = JsonProperty.Access.READ_ONLY) String imagePath) {
+
+    static BookJson of(Book book) {
+        return new BookJson(book.getId(), book.getTitle(), book.getIsbn(), book.getTotalCopies(),
+                book.getLoanedCopies(), book.getAvailableCopies(), book.getImagePath());
+    }
+}
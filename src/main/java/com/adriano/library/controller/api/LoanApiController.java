@@ -0,0 +1,52 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.logic.service.CurrentUser;
+import com.adriano.library.business.logic.service.DataVersions;
+import com.adriano.library.business.logic.service.LoanService;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+// LoanService decides who sees and writes which loans: USER their own, ADMIN all
+@RestController
+@RequestMapping("/api/v1/loans")
+public class LoanApiController extends ApiController<Loan, LoanJson> {
+
+    private final CurrentUser currentUser;
+
+    public LoanApiController(LoanService service, DataVersions dataVersions, CurrentUser currentUser) {
+        super(service, dataVersions, "loan");
+        this.currentUser = currentUser;
+    }
+
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "loanDate", "returnDate");
+    }
+
+    @Override
+    protected LoanJson toJson(Loan loan) {
+        return LoanJson.of(loan);
+    }
+
+    @Override
+    protected Loan toEntity(LoanJson body, Loan existing) {
+        Loan loan = new Loan();
+        loan.setId(body.id());
+        loan.setLoanDate(body.loanDate());
+        loan.setReturnDate(body.returnDate());
+        if (body.bookId() != null) {
+            Book book = new Book();
+            book.setId(body.bookId());
+            loan.setBook(book);
+        }
+        User user = new User();
+        user.setId(body.userId() != null ? body.userId() : existing != null ? existing.getUser().getId() : currentUser.id());
+        loan.setUser(user);
+        return loan;
+    }
+}
@@ -0,0 +1,17 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.enums.LoanStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+// status is derived from the dates; userId may be left out for a loan of one's own
+public record LoanJson(Long id, Long bookId, Long userId, LocalDate loanDate, LocalDate returnDate,
+                       @JsonProperty(access = JsonProperty.Access.READ_ONLY) LoanStatus status) {
+
+    static LoanJson of(Loan loan) {
+        return new LoanJson(loan.getId(), loan.getBook().getId(), loan.getUser().getId(),
+                loan.getLoanDate(), loan.getReturnDate(), loan.getStatus());
+    }
+}
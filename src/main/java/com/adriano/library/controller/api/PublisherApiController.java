@@ -0,0 +1,42 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Publisher;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.logic.service.PublisherService;
+import com.adriano.library.business.logic.service.DataVersions;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/publishers")
+public class PublisherApiController extends ApiController<Publisher, PublisherJson> {
+
+    public PublisherApiController(PublisherService service, DataVersions dataVersions) {
+        super(service, dataVersions, "publisher");
+    }
+
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "name");
+    }
+
+    @Override
+    protected PublisherJson toJson(Publisher publisher) {
+        return PublisherJson.of(publisher);
+    }
+
+    @Override
+    protected Publisher toEntity(PublisherJson body, Publisher existing) {
+        Publisher publisher = new Publisher();
+        publisher.setId(body.id());
+        publisher.setName(body.name());
+        if (body.bookId() != null) {
+            Book book = new Book();
+            book.setId(body.bookId());
+            publisher.setBook(book);
+        }
+        return publisher;
+    }
+}
@@ -0,0 +1,10 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.Publisher;
+
+public record PublisherJson(Long id, String name, Long bookId) {
+
+    static PublisherJson of(Publisher publisher) {
+        return new PublisherJson(publisher.getId(), publisher.getName(), publisher.getBook().getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.logic.service.DataVersions;
+import com.adriano.library.business.logic.service.UserService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserApiController extends ApiController<User, UserJson> {
+
+    public UserApiController(UserService service, DataVersions dataVersions) {
+        super(service, dataVersions, "user");
+    }
+
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "email");
+    }
+
+    @Override
+    protected UserJson toJson(User user) {
+        return UserJson.of(user);
+    }
+
+    @Override
+    protected User toEntity(UserJson body, User existing) {
+        User user = new User();
+        user.setId(body.id());
+        user.setEmail(body.email());
+        user.setPassword(body.password());
+        if (body.userRole() != null) user.setUserRole(body.userRole());
+        return user;
+    }
+}
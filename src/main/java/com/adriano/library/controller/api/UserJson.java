@@ -0,0 +1,15 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.enums.UserRole;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// The password is only ever sent in; left out on update, the stored one is kept (UserService)
+public record UserJson(Long id, String email,
+                       @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) String password,
+                       UserRole userRole) {
+
+    static UserJson of(User user) {
+        return new UserJson(user.getId(), user.getEmail(), null, user.getUserRole());
+    }
+}
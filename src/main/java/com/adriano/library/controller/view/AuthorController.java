@@ -1,53 +1,50 @@
 package com.adriano.library.controller.view;
 
+import com.adriano.library.business.domain.dto.AuthorRow;
 import com.adriano.library.business.domain.entity.Author;
 import com.adriano.library.business.domain.entity.Book;
 import com.adriano.library.business.logic.service.AuthorService;
 import com.adriano.library.business.logic.service.BookService;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/authors")
 @PreAuthorize("hasRole('ADMIN')")
 public class AuthorController extends BaseController<Author> {
 
+    private final AuthorService authorService;
     private final BookService bookService;
 
     public AuthorController(AuthorService service, BookService bookService) {
         super(service, "authors");
+        this.authorService = service;
         this.bookService = bookService;
     }
 
     @Override
-    protected Author newInstance() {
-        return new Author();
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "name");
     }
 
     @Override
-    @GetMapping("/create")
-    public String create(Model model) {
-        model.addAttribute("item", newInstance());
-        addBooks(model);
-        return viewBasePath + "/form";
+    protected void addPage(Model model, Long cursor, int size, Sort sort) {
+        KeysetPaging.addToModel(model, authorService.findRows(cursor, size, sort), AuthorRow::getId, cursor, size, sort);
     }
 
     @Override
-    @GetMapping("/edit/{id}")
-    public String edit(@PathVariable Long id, Model model) {
-        Author entity = service.findById(id).orElseThrow();
-        model.addAttribute("item", entity);
-        addBooks(model);
-        return viewBasePath + "/form";
+    protected Author newInstance() {
+        return new Author();
     }
 
-    private void addBooks(Model model) {
+    @Override
+    protected void addFormData(Model model) {
         List<Book> books = bookService.findAll();
         model.addAttribute("books", books);
     }
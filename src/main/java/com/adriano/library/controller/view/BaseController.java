@@ -2,13 +2,17 @@ package com.adriano.library.controller.view;
 
 import com.adriano.library.business.domain.entity.BaseEntity;
 import com.adriano.library.business.logic.service.BaseService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
+import java.util.Set;
 
 public abstract class BaseController<T extends BaseEntity> {
 
@@ -21,32 +25,60 @@ public abstract class BaseController<T extends BaseEntity> {
     }
 
     @GetMapping
-    public String list(Model model) {
-        List<T> all = service.findAll();
-        model.addAttribute("items", all);
+    public String list(@RequestParam(required = false) Long cursor,
+                       @RequestParam(defaultValue = KeysetPaging.DEFAULT_SIZE) int size,
+                       @RequestParam(defaultValue = "id") String sort,
+                       Model model) {
+        int pageSize = KeysetPaging.size(size);
+        Sort order = KeysetPaging.sort(sort, sortableColumns());
+        addPage(model, cursor, pageSize, order);
         return viewBasePath + "/list";
     }
 
+    // Views backed by a row projection override this to skip loading entities
+    protected void addPage(Model model, Long cursor, int size, Sort sort) {
+        Window<T> window = service.findWindow(cursor, size, sort);
+        KeysetPaging.addToModel(model, window, BaseEntity::getId, cursor, size, sort);
+    }
+
     @GetMapping("/create")
     public String create(Model model) {
         model.addAttribute("item", newInstance());
+        addFormData(model);
         return viewBasePath + "/form";
     }
 
     @PostMapping
-    public String save(@ModelAttribute("item") T entity) {
-        if (entity.getId() == null) service.save(entity);
-        else service.update(entity.getId(), entity);
-        return "redirect:/" + viewBasePath;
+    public String save(@ModelAttribute("item") T entity, Model model) {
+        return persist(entity, model) ? "redirect:/" + viewBasePath : viewBasePath + "/form";
     }
 
     @GetMapping("/edit/{id}")
     public String edit(@PathVariable Long id, Model model) {
         T entity = service.findById(id).orElseThrow();
         model.addAttribute("item", entity);
+        addFormData(model);
         return viewBasePath + "/form";
     }
 
+    // Saves or updates the entity; false, with the form's error and data in the model, if the
+    // record changed since the form read it
+    protected boolean persist(T entity, Model model) {
+        try {
+            if (entity.getId() == null) service.save(entity);
+            else service.update(entity.getId(), entity);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            formError(model, "This record was changed by someone else since the form was opened; reload it and try again");
+            return false;
+        }
+    }
+
+    protected void formError(Model model, String message) {
+        model.addAttribute("error", message);
+        addFormData(model);
+    }
+
     @GetMapping("/delete/{id}")
     public String delete(@PathVariable Long id) {
         service.deleteById(id);
@@ -54,5 +86,14 @@ public abstract class BaseController<T extends BaseEntity> {
     }
 
     protected abstract T newInstance();
+
+    // Whatever else the form view needs besides the item, e.g. the choices of a select
+    protected void addFormData(Model model) {
+    }
+
+    // Columns the list view may be sorted by, besides id
+    protected Set<String> sortableColumns() {
+        return Set.of("id");
+    }
 }
 
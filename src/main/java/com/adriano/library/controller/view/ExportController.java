@@ -0,0 +1,56 @@
+package com.adriano.library.controller.view;
+
+import com.adriano.library.business.domain.enums.ExportFormat;
+import com.adriano.library.business.logic.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Downloads of the loan, book and user tables (?format=CSV or JSON). The body is written while
+ * the rows are read, so the response is streamed with chunked encoding; role checks are those of
+ * ExportService, and the URL paths sit under the list pages' security rules.
+ */
+@Controller
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/loans/export")
+    public void loans(@RequestParam(defaultValue = "CSV") ExportFormat format, HttpServletResponse response) throws IOException {
+        start(response, "loans", format);
+        exportService.exportLoans(format, response.getWriter());
+    }
+
+    @GetMapping("/books/export")
+    public void books(@RequestParam(defaultValue = "CSV") ExportFormat format, HttpServletResponse response) throws IOException {
+        start(response, "books", format);
+        exportService.exportBooks(format, response.getWriter());
+    }
+
+    @GetMapping("/users/export")
+    public void users(@RequestParam(defaultValue = "CSV") ExportFormat format, HttpServletResponse response) throws IOException {
+        start(response, "users", format);
+        exportService.exportUsers(format, response.getWriter());
+    }
+
+    private static void start(HttpServletResponse response, String name, ExportFormat format) {
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "-" + LocalDate.now() + "." + format.extension())
+                .build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+}
@@ -1,5 +1,7 @@
 package com.adriano.library.controller.view;
 
+import com.adriano.library.business.logic.service.CurrentUser;
+import com.adriano.library.business.logic.service.DashboardStats;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,12 +11,25 @@ import java.security.Principal;
 @Controller
 public class HomeController {
 
+    private final DashboardStats dashboard;
+    private final CurrentUser currentUser;
+
+    public HomeController(DashboardStats dashboard, CurrentUser currentUser) {
+        this.dashboard = dashboard;
+        this.currentUser = currentUser;
+    }
+
     @GetMapping("/")
     public String home(Model model, Principal principal) {
         if (principal != null) {
             model.addAttribute("username", principal.getName());
+            // In-memory totals: no query per page view
+            if (currentUser.isAdmin()) {
+                model.addAttribute("totals", dashboard.totals());
+            } else {
+                model.addAttribute("myOpenLoans", dashboard.openLoansOf(currentUser.id()));
+            }
         }
         return "home";
     }
 }
-
@@ -0,0 +1,46 @@
+package com.adriano.library.controller.view;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.ui.Model;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Request parameters shared by the list views and the JSON API: {@code cursor} (id of the last row shown),
+ * {@code size} and {@code sort} ("property" or "property,desc").
+ */
+public final class KeysetPaging {
+
+    public static final String DEFAULT_SIZE = "20";
+    public static final int MAX_SIZE = 100;
+
+    private KeysetPaging() {
+    }
+
+    public static int size(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    // Unknown columns fall back to id so arbitrary input never reaches the query
+    public static Sort sort(String requested, Set<String> sortable) {
+        String[] parts = requested == null ? new String[0] : requested.split(",");
+        String property = parts.length > 0 && sortable.contains(parts[0].trim()) ? parts[0].trim() : "id";
+        boolean descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, property);
+    }
+
+    static <T> void addToModel(Model model, Window<T> window, Function<? super T, Long> idOf,
+                               Long cursor, int size, Sort sort) {
+        List<T> items = window.getContent();
+        Sort.Order order = sort.iterator().next();
+
+        model.addAttribute("items", items);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("nextCursor", window.hasNext() && !items.isEmpty() ? idOf.apply(items.get(items.size() - 1)) : null);
+        model.addAttribute("size", size);
+        model.addAttribute("sort", order.getProperty() + "," + order.getDirection().name().toLowerCase());
+    }
+}
@@ -1,11 +1,20 @@
 package com.adriano.library.controller.view;
 
-import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.dto.LoanRow;
+import com.adriano.library.business.domain.dto.Suggestion;
 import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.LoanHold;
 import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import com.adriano.library.business.domain.enums.LoanStatus;
 import com.adriano.library.business.logic.service.BookService;
+import com.adriano.library.business.logic.service.CurrentUser;
 import com.adriano.library.business.logic.service.LoanService;
 import com.adriano.library.business.logic.service.UserService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -14,20 +23,26 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/loans")
 public class LoanController {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final BookService bookService;
     private final UserService userService;
     private final LoanService loanService;
+    private final CurrentUser currentUser;
     private final String viewBasePath = "loans";
+    private final Set<String> sortableColumns = Set.of("id", "loanDate", "returnDate");
 
-    public LoanController(LoanService service, BookService bookService, UserService userService) {
+    public LoanController(LoanService service, BookService bookService, UserService userService, CurrentUser currentUser) {
         this.bookService = bookService;
         this.userService = userService;
         this.loanService = service;
+        this.currentUser = currentUser;
     }
 
     protected Loan newInstance() {
@@ -41,14 +56,12 @@ public class LoanController {
 
         // If not admin, pre-set the current user
         if (isAdmin(authentication)) {
-            User currentUser = userService.findByEmail(authentication.getName())
-                    .orElseThrow(() -> new IllegalStateException("Current user not found"));
-            loan.setUser(currentUser);
-            model.addAttribute("currentUserId", currentUser.getId());
+            loan.setUser(currentUserReference());
+            model.addAttribute("currentUserId", currentUser.id());
         }
 
         model.addAttribute("item", loan);
-        addBooksAndUsers(model);
+        addSelection(model, loan);
         return viewBasePath + "/form";
     }
 
@@ -57,19 +70,33 @@ public class LoanController {
     public String edit(@PathVariable Long id, Model model) {
         Loan entity = loanService.findById(id).orElseThrow();
         model.addAttribute("item", entity);
-        addBooksAndUsers(model);
+        addSelection(model, entity);
         return viewBasePath + "/form";
     }
 
+    // JSON matches for the book and user pickers of the form, fetched as the user types
+
+    @GetMapping("/books/suggest")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @ResponseBody
+    public List<Suggestion> suggestBooks(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return bookService.suggest(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/users/suggest")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public List<Suggestion> suggestUsers(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return userService.suggest(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public String save(@ModelAttribute("item") Loan entity, RedirectAttributes redirectAttributes, Model model, Authentication authentication) {
         try {
             // If not admin, ensure user is creating loan for themselves
             if (isAdmin(authentication)) {
-                User currentUser = userService.findByEmail(authentication.getName())
-                        .orElseThrow(() -> new IllegalStateException("Current user not found"));
-                entity.setUser(currentUser);
+                entity.setUser(currentUserReference());
             }
 
             if (entity.getId() == null) {
@@ -82,16 +109,56 @@ public class LoanController {
         } catch (IllegalArgumentException | SecurityException e) {
             model.addAttribute("error", e.getMessage());
             model.addAttribute("item", entity);
-            addBooksAndUsers(model);
+            // A new loan that did not fit may wait for the next free copy instead
+            model.addAttribute("offerHold", entity.getId() == null && entity.getBook() != null && entity.getBook().getId() != null);
+            addSelection(model, entity);
+            return viewBasePath + "/form";
+        } catch (DataIntegrityViolationException e) {
+            model.addAttribute("error", "The loan conflicts with the current data; the book or user may have been deleted");
+            model.addAttribute("item", entity);
+            addSelection(model, entity);
+            return viewBasePath + "/form";
+        } catch (OptimisticLockingFailureException e) {
+            model.addAttribute("error", "The loan was changed by someone else since this form was opened; reload it and try again");
+            model.addAttribute("item", entity);
+            addSelection(model, entity);
             return viewBasePath + "/form";
         }
     }
 
+    @PostMapping("/holds")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public String hold(@RequestParam Long bookId, @RequestParam(required = false) Long userId,
+                       RedirectAttributes redirectAttributes, Authentication authentication) {
+        // Same rule as save: non-admins queue for themselves
+        Long holderId = isAdmin(authentication) || userId == null ? currentUser.id() : userId;
+        try {
+            LoanHold hold = loanService.placeHold(bookId, holderId);
+            if (hold.getStatus() == HoldStatus.ALLOCATED) {
+                redirectAttributes.addFlashAttribute("success", "A copy was free, so the loan was created");
+            } else {
+                redirectAttributes.addFlashAttribute("success", "Added to the waiting list, position "
+                        + loanService.queuePosition(hold) + "; the loan is created as soon as a copy is free");
+            }
+        } catch (IllegalArgumentException | SecurityException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/" + viewBasePath;
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public String list(Model model) {
-        List<Loan> all = loanService.findAll();
-        model.addAttribute("items", all);
+    public String list(@RequestParam(required = false) Long cursor,
+                       @RequestParam(defaultValue = KeysetPaging.DEFAULT_SIZE) int size,
+                       @RequestParam(defaultValue = "id") String sort,
+                       @RequestParam(required = false) LoanStatus status,
+                       Model model) {
+        int pageSize = KeysetPaging.size(size);
+        Sort order = KeysetPaging.sort(sort, sortableColumns);
+        Window<LoanRow> window = loanService.findRows(status, cursor, pageSize, order);
+        KeysetPaging.addToModel(model, window, LoanRow::getId, cursor, pageSize, order);
+        model.addAttribute("status", status);
+        model.addAttribute("statuses", LoanStatus.values());
         return viewBasePath + "/list";
     }
 
@@ -102,11 +169,21 @@ public class LoanController {
         return "redirect:/" + viewBasePath;
     }
 
-    private void addBooksAndUsers(Model model) {
-        List<Book> books = bookService.findAll();
-        List<User> users = userService.findAll();
-        model.addAttribute("books", books);
-        model.addAttribute("users", users);
+    // Labels of the book and user already chosen, which the pickers show; the choices themselves come from suggest
+    private void addSelection(Model model, Loan loan) {
+        if (loan.getBook() != null && loan.getBook().getId() != null) {
+            bookService.findById(loan.getBook().getId()).ifPresent(book -> model.addAttribute("selectedBook", book));
+        }
+        if (loan.getUser() != null && loan.getUser().getId() != null) {
+            userService.findById(loan.getUser().getId()).ifPresent(user -> model.addAttribute("selectedUser", user));
+        }
+    }
+
+    // The loan only needs the user's id, which the principal already carries
+    private User currentUserReference() {
+        User user = new User();
+        user.setId(currentUser.id());
+        return user;
     }
 
     private boolean isAdmin(Authentication authentication) {
@@ -0,0 +1,91 @@
+package com.adriano.library.controller.view;
+
+import com.adriano.library.business.logic.service.DataVersions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Rendered HTML of the catalog list pages, keyed by path, query string and the DataVersions tags
+ * of the types each page shows. Any committed write to one of those types moves its tag on, so
+ * later requests miss and render afresh; until then a hit is a map lookup, with no query and no
+ * template run. Entries are bounded by total size; pages under old tags are never read again and
+ * are the first to go. Runs after the security filters, so only callers allowed to see a page are
+ * served it; the pages cached hold nothing specific to the caller (no CSRF token, no user name).
+ */
+@Component
+public class RenderedPageCache extends OncePerRequestFilter {
+
+    private record Page(byte[] body, String contentType) {
+    }
+
+    // Page -> types it renders (authors and publishers show their book's title)
+    private static final Map<String, List<String>> PAGES = Map.of(
+            "/books", List.of("book"),
+            "/authors", List.of("author", "book"),
+            "/publishers", List.of("publisher", "book"));
+
+    private final DataVersions dataVersions;
+    private final Cache<String, Page> pages;
+
+    public RenderedPageCache(DataVersions dataVersions, MeterRegistry meterRegistry,
+                             @Value("${library.page-cache.max-size:16MB}") DataSize maxSize) {
+        this.dataVersions = dataVersions;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Page page) -> key.length() + page.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "renderedPages");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !PAGES.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Taken before rendering: a write committing meanwhile leaves the page under a tag nobody asks for again
+        String key = keyOf(request);
+        Page cached = pages.getIfPresent(key);
+        if (cached != null) {
+            response.setContentType(cached.contentType());
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper rendering = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, rendering);
+        if (rendering.getStatus() == HttpServletResponse.SC_OK && rendering.getContentType() != null) {
+            pages.put(key, new Page(rendering.getContentAsByteArray(), rendering.getContentType()));
+        }
+        rendering.copyBodyToResponse();
+    }
+
+    private String keyOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String versions = PAGES.get(path).stream()
+                .map(type -> type + "=" + dataVersions.tag(dataVersions.current(type)))
+                .collect(Collectors.joining(","));
+        String query = request.getQueryString();
+        return path + (query != null ? "?" + query : "") + "#" + versions;
+    }
+}
@@ -0,0 +1,33 @@
+package com.adriano.library.controller.view;
+
+import com.adriano.library.business.domain.dto.SearchHit;
+import com.adriano.library.business.logic.service.CatalogSearchService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@Controller
+@PreAuthorize("hasRole('ADMIN')")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final CatalogSearchService catalogSearch;
+
+    public SearchController(CatalogSearchService catalogSearch) {
+        this.catalogSearch = catalogSearch;
+    }
+
+    // JSON results for the search box on the list pages; type narrows to book, author or publisher
+    @GetMapping("/search")
+    @ResponseBody
+    public List<SearchHit> search(@RequestParam("q") String query,
+                                  @RequestParam(required = false) String type,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return catalogSearch.search(query, type, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,156 @@
+package com.adriano.library.controller.view;
+
+import com.adriano.library.business.domain.enums.CoverVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded files. Content-hash named files get a strong ETag derived from the hash and an
+ * immutable Cache-Control, so browsers keep them without revalidating; other files are
+ * revalidated with a weak ETag. Single byte ranges are honoured. On Tomcat the body is written
+ * with sendfile, so the bytes never pass through the heap.
+ */
+@Controller
+@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+public class UploadController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final Pattern HASHED = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]+");
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable().getHeaderValue();
+
+    // Request attributes of Tomcat's sendfile support (the DefaultServlet uses the same ones)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path uploadDir;
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    public UploadController(@Value("${library.uploads.dir:src/main/uploads}") Path uploadDir) {
+        this.uploadDir = uploadDir.toAbsolutePath().normalize();
+    }
+
+    @GetMapping(PREFIX + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relative = pathHelper.getPathWithinApplication(request).substring(PREFIX.length());
+        Path file = resolve(relative);
+        boolean substitute = false;
+        if (file == null) {
+            // Thumbnails are written asynchronously; the original stands in until they exist
+            String original = CoverVariant.originalOf(relative);
+            file = original != null ? resolve(original) : null;
+            substitute = true;
+        }
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = etagOf(file, length, lastModified);
+        // A stand-in must not be cached for good under the variant's URL
+        response.setHeader(HttpHeaders.CACHE_CONTROL, etag.startsWith("W/") || substitute ? "no-cache" : IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Several ranges are answered with the whole file, which HTTP allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    // HttpRange clamps the end to the file but not the start
+                    if (start >= length) throw new IllegalArgumentException("Range starts past the end");
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file once this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    // Regular file inside the upload directory, or null
+    private Path resolve(String relative) {
+        Path file = uploadDir.resolve(relative).normalize();
+        return file.startsWith(uploadDir) && Files.isRegularFile(file) ? file : null;
+    }
+
+    // "<hash>" for an original, "<hash>-<variant>" for a resized copy of it
+    private static String etagOf(Path file, long length, long lastModified) {
+        String name = file.getFileName().toString();
+        if (!HASHED.matcher(name).matches()) {
+            return "W/\"" + length + "-" + lastModified + "\"";
+        }
+        String hash = name.substring(0, name.indexOf('.'));
+        String directory = file.getParent().getFileName().toString();
+        for (CoverVariant variant : CoverVariant.values()) {
+            if (variant.directory().equals(directory)) return "\"" + hash + "-" + directory + "\"";
+        }
+        return "\"" + hash + "\"";
+    }
+
+    // A range applies only to the representation the client already has part of
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"")) return ifRange.equals(etag);
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.util.Set;
+
 @Controller
 @RequestMapping("/users")
 @PreAuthorize("hasRole('ADMIN')")
@@ -15,6 +17,11 @@ public class UserController extends BaseController<User> {
         super(userService, "users");
     }
 
+    @Override
+    protected Set<String> sortableColumns() {
+        return Set.of("id", "email");
+    }
+
     @Override
     protected User newInstance() {
         return new User();
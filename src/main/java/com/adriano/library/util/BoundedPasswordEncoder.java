@@ -0,0 +1,150 @@
+package com.adriano.library.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a fixed pool of hashing threads with a bounded queue. A login storm queues up
+ * behind a few CPU-bound hashes instead of occupying every request thread; once the queue is
+ * full, callers are turned away immediately. Hashes with a lower cost report
+ * {@link #upgradeEncoding}, so they are re-encoded on the next successful login; higher ones are
+ * left alone, so lowering the configured cost never weakens stored hashes.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout, MeterRegistry registry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeout = timeout;
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                // Platform threads on purpose: hashing is CPU-bound, while callers, virtual
+                // request threads included, only park on the future
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("library.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("library.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("library.password.bcrypt.strength", () -> this.strength)
+                .register(registry);
+        // Latency as seen by the caller, queueing included
+        this.encodeTimer = Timer.builder("library.password.hash").tag("operation", "encode").register(registry);
+        this.matchesTimer = Timer.builder("library.password.hash").tag("operation", "matches").register(registry);
+        this.rejected = Counter.builder("library.password.hash.rejected").register(registry);
+    }
+
+    // Prints the calibrated cost for this machine, to be set as library.security.bcrypt.strength
+    public static void main(String[] args) {
+        Duration target = args.length > 0 ? Duration.parse(args[0]) : Duration.ofMillis(250);
+        System.out.println("library.security.bcrypt.strength=" + calibrate(target));
+    }
+
+    // Highest cost whose hash still fits the target latency on this machine
+    public static int calibrate(Duration targetLatency) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration"); // warm-up
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long nanos = System.nanoTime() - start;
+
+        int strength = MIN_STRENGTH;
+        // Each cost step doubles the work
+        while (strength < MAX_STRENGTH && nanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> hashing) {
+        long start = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthenticationServiceException("Too many sign-ins in progress, please try again");
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new AuthenticationServiceException("Password check timed out, please try again");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
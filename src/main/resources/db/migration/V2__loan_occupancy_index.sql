@@ -0,0 +1,6 @@
+-- ================================================
+-- Loan occupancy lookup
+-- ================================================
+-- Backs LoanRepository.countOccupiedCopies: equality on book_id,
+-- then a range on return_date (non-returned) and loan_date (overlap).
+CREATE INDEX idx_loan_book_dates ON loan (book_id, return_date, loan_date);
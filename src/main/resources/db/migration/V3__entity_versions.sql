@@ -0,0 +1,8 @@
+-- ================================================
+-- Optimistic locking columns (BaseEntity.version)
+-- ================================================
+ALTER TABLE user ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE book ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE author ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE publisher ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE loan ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,41 @@
+-- ================================================
+-- Id generator tables for GenerationType.AUTO
+-- ================================================
+-- Hibernate assigns ids from these pooled sequences (50 per round trip), which keeps
+-- inserts batchable; AUTO_INCREMENT (IDENTITY) would force one INSERT per row.
+-- Each starts past the rows already in its table.
+CREATE TABLE IF NOT EXISTS user_seq
+(
+    next_val BIGINT
+);
+INSERT INTO user_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM user WHERE NOT EXISTS (SELECT 1 FROM user_seq);
+
+CREATE TABLE IF NOT EXISTS book_seq
+(
+    next_val BIGINT
+);
+INSERT INTO book_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM book WHERE NOT EXISTS (SELECT 1 FROM book_seq);
+
+CREATE TABLE IF NOT EXISTS author_seq
+(
+    next_val BIGINT
+);
+INSERT INTO author_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM author WHERE NOT EXISTS (SELECT 1 FROM author_seq);
+
+CREATE TABLE IF NOT EXISTS publisher_seq
+(
+    next_val BIGINT
+);
+INSERT INTO publisher_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM publisher WHERE NOT EXISTS (SELECT 1 FROM publisher_seq);
+
+CREATE TABLE IF NOT EXISTS loan_seq
+(
+    next_val BIGINT
+);
+INSERT INTO loan_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM loan WHERE NOT EXISTS (SELECT 1 FROM loan_seq);
+
@@ -0,0 +1,17 @@
+-- ================================================
+-- Stored loan status
+-- ================================================
+-- loan.status is now written on every save and moved on by LoanStatusTransitions;
+-- bring existing rows up to date with their dates.
+UPDATE loan
+SET status = CASE
+                 WHEN loan_date > CURRENT_DATE THEN 'RESERVED'
+                 WHEN return_date < CURRENT_DATE THEN 'RETURNED'
+                 ELSE 'ACTIVE'
+    END;
+
+-- Status first, then the date each transition compares: serves the transition job
+-- as well as status filters and counts. Supersedes idx_status.
+CREATE INDEX idx_loan_status_loan_date ON loan (status, loan_date);
+CREATE INDEX idx_loan_status_return_date ON loan (status, return_date);
+DROP INDEX idx_status ON loan;
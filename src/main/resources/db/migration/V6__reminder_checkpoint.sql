@@ -0,0 +1,13 @@
+-- ================================================
+-- Loan reminder progress
+-- ================================================
+-- One row per daily run of LoanReminders; last_user_id is the last user whose mail went out.
+CREATE TABLE reminder_checkpoint
+(
+    run_date     DATE    NOT NULL PRIMARY KEY,
+    last_user_id BIGINT  NOT NULL DEFAULT 0,
+    sent         INT     NOT NULL DEFAULT 0,
+    completed    BOOLEAN NOT NULL DEFAULT FALSE
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
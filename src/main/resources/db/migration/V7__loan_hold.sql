@@ -0,0 +1,30 @@
+-- ================================================
+-- Hold queue for fully booked books
+-- ================================================
+-- A user waiting for the next free copy of a book. Holds of a book are served oldest first;
+-- allocated ones point at the loan they became, expired ones lapsed unserved.
+CREATE TABLE loan_hold
+(
+    id           BIGINT PRIMARY KEY,
+    version      BIGINT      NOT NULL DEFAULT 0,
+    book_id      BIGINT      NOT NULL,
+    user_id      BIGINT      NOT NULL,
+    requested_at DATETIME(6) NOT NULL,
+    expires_on   DATE        NOT NULL,
+    status       VARCHAR(50) NOT NULL DEFAULT 'WAITING' COMMENT 'WAITING, ALLOCATED, EXPIRED',
+    loan_id      BIGINT,
+    FOREIGN KEY (book_id) REFERENCES book (id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user (id) ON DELETE CASCADE,
+    -- The queue of a book in order, and the expiry sweep
+    INDEX idx_loan_hold_book_status (book_id, status, requested_at),
+    INDEX idx_loan_hold_status_expires (status, expires_on)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS loan_hold_seq
+(
+    next_val BIGINT
+);
+INSERT INTO loan_hold_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM loan_hold_seq);
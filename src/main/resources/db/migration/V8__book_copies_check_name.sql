@@ -0,0 +1,23 @@
+-- ================================================
+-- Named check on the copies of a book
+-- ================================================
+-- V1 left loaned_copies <= total_copies unnamed (MySQL calls it book_chk_<n>). LoanService
+-- reports its violation as "no copies" and must tell it apart from other integrity errors,
+-- so it is recreated under a fixed name.
+SET @copies_check = (SELECT cc.constraint_name
+                     FROM information_schema.check_constraints cc
+                              JOIN information_schema.table_constraints tc
+                                   ON tc.constraint_schema = cc.constraint_schema
+                                       AND tc.constraint_name = cc.constraint_name
+                     WHERE tc.table_schema = DATABASE()
+                       AND tc.table_name = 'book'
+                       AND tc.constraint_type = 'CHECK'
+                       AND cc.check_clause LIKE '%loaned_copies%<=%total_copies%'
+                     LIMIT 1);
+SET @drop_check = IF(@copies_check IS NULL, 'DO 0', CONCAT('ALTER TABLE book DROP CHECK `', @copies_check, '`'));
+PREPARE drop_check FROM @drop_check;
+EXECUTE drop_check;
+DEALLOCATE PREPARE drop_check;
+
+ALTER TABLE book
+    ADD CONSTRAINT chk_book_loaned_copies CHECK (loaned_copies <= total_copies);
@@ -0,0 +1,7 @@
+-- ================================================
+-- Loan occupancy lookup, retired
+-- ================================================
+-- idx_loan_book_dates (V2) backed the per-booking occupancy count; bookings are checked against
+-- BookAvailabilityIndex in memory and that query is gone, so the index only slows loan writes.
+-- The book_id foreign key keeps idx_book_id.
+DROP INDEX idx_loan_book_dates ON loan;
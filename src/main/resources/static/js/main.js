@@ -55,28 +55,75 @@ function setupLoanDateValidation() {
     }
 }
 
-// Book availability check
-function checkBookAvailability(bookId) {
-    if (!bookId) return;
-
-    // This would typically make an AJAX call to check availability
-    // For now, we'll just show a visual indicator
-    const bookSelect = document.getElementById('book');
-    if (bookSelect) {
-        const selectedOption = bookSelect.options[bookSelect.selectedIndex];
-        const available = selectedOption.getAttribute('data-available');
-
-        const availabilityDiv = document.getElementById('book-availability');
-        if (availabilityDiv) {
-            if (parseInt(available) > 0) {
-                availabilityDiv.innerHTML = `<span class="badge bg-success"><i class="bi bi-check-circle"></i> ${available} copies available</span>`;
-            } else {
-                availabilityDiv.innerHTML = `<span class="badge bg-danger"><i class="bi bi-x-circle"></i> No copies available</span>`;
-            }
-        }
+// Book availability badge, from the free copies of the chosen book
+function showBookAvailability(available) {
+    const availabilityDiv = document.getElementById('book-availability');
+    if (!availabilityDiv) return;
+    if (available === null || available === undefined || available === '') {
+        availabilityDiv.innerHTML = '';
+    } else if (parseInt(available) > 0) {
+        availabilityDiv.innerHTML = `<span class="badge bg-success"><i class="bi bi-check-circle"></i> ${available} copies available</span>`;
+    } else {
+        availabilityDiv.innerHTML = `<span class="badge bg-danger"><i class="bi bi-x-circle"></i> No copies available</span>`;
     }
 }
 
+// Typeahead picker: matches come from the data-typeahead URL as the user types, and the chosen id
+// goes to the hidden input named by data-typeahead-target
+function typeahead(input) {
+    const hidden = input.form.querySelector(`input[type="hidden"][name="${input.getAttribute('data-typeahead-target')}"]`);
+    const results = input.parentElement.querySelector('.typeahead-results');
+    const url = input.getAttribute('data-typeahead');
+    let timer = null;
+    let latest = 0;
+
+    if (!hidden || !results) return;
+
+    input.addEventListener('input', function () {
+        // Typing invalidates the previous choice until a match is picked
+        hidden.value = '';
+        input.dispatchEvent(new CustomEvent('typeahead:select', {detail: null}));
+        clearTimeout(timer);
+        const query = this.value.trim();
+        if (!query) {
+            results.innerHTML = '';
+            return;
+        }
+        timer = setTimeout(() => {
+            const request = ++latest;
+            fetch(`${url}?q=${encodeURIComponent(query)}`)
+                .then(response => response.ok ? response.json() : [])
+                .then(matches => {
+                    if (request !== latest) return; // a newer query is in flight
+                    results.innerHTML = '';
+                    if (matches.length === 0) {
+                        results.innerHTML = '<span class="list-group-item text-muted">No matches</span>';
+                        return;
+                    }
+                    matches.forEach(match => {
+                        const item = document.createElement('button');
+                        item.type = 'button';
+                        item.className = 'list-group-item list-group-item-action';
+                        item.textContent = match.label;
+                        if (match.detail) {
+                            const detail = document.createElement('small');
+                            detail.className = 'text-muted ms-2';
+                            detail.textContent = match.detail;
+                            item.appendChild(detail);
+                        }
+                        item.addEventListener('click', () => {
+                            hidden.value = match.id;
+                            input.value = match.detail ? `${match.label} (${match.detail})` : match.label;
+                            results.innerHTML = '';
+                            input.dispatchEvent(new CustomEvent('typeahead:select', {detail: match}));
+                        });
+                        results.appendChild(item);
+                    });
+                });
+        }, 200);
+    });
+}
+
 // Initialize tooltips
 function initTooltips() {
     const tooltipTriggerList = [].slice.call(document.querySelectorAll('[data-bs-toggle="tooltip"]'));
@@ -90,16 +137,15 @@ document.addEventListener('DOMContentLoaded', function () {
     setupLoanDateValidation();
     initTooltips();
 
-    // Book selection change
-    const bookSelect = document.getElementById('book');
-    if (bookSelect) {
-        bookSelect.addEventListener('change', function () {
-            checkBookAvailability(this.value);
+    document.querySelectorAll('input[data-typeahead]').forEach(typeahead);
+
+    // Book picker: availability of the chosen book, including the one already chosen on load
+    const bookInput = document.getElementById('book');
+    if (bookInput && bookInput.hasAttribute('data-typeahead')) {
+        bookInput.addEventListener('typeahead:select', event => {
+            showBookAvailability(event.detail ? event.detail.available : null);
         });
-        // Check on page load if already selected
-        if (bookSelect.value) {
-            checkBookAvailability(bookSelect.value);
-        }
+        showBookAvailability(bookInput.getAttribute('data-available'));
     }
 });
 
@@ -135,12 +181,59 @@ function searchTable(inputId, tableId) {
     });
 }
 
+// Server-side catalog search: results come from /search instead of the rows on the page
+function serverSearch(inputId, resultsId) {
+    const input = document.getElementById(inputId);
+    const results = document.getElementById(resultsId);
+
+    if (!input || !results) return;
+
+    const type = input.getAttribute('data-search-type');
+    let timer = null;
+    let latest = 0;
+
+    input.addEventListener('input', function () {
+        clearTimeout(timer);
+        const query = this.value.trim();
+        if (!query) {
+            results.innerHTML = '';
+            return;
+        }
+        timer = setTimeout(() => {
+            const request = ++latest;
+            fetch(`/search?type=${encodeURIComponent(type)}&q=${encodeURIComponent(query)}`)
+                .then(response => response.ok ? response.json() : [])
+                .then(hits => {
+                    if (request !== latest) return; // a newer query is in flight
+                    results.innerHTML = '';
+                    if (hits.length === 0) {
+                        results.innerHTML = '<span class="list-group-item text-muted">No results</span>';
+                        return;
+                    }
+                    hits.forEach(hit => {
+                        const link = document.createElement('a');
+                        link.className = 'list-group-item list-group-item-action';
+                        link.href = `/${hit.type}s/edit/${hit.id}`;
+                        link.textContent = hit.label;
+                        const detail = document.createElement('small');
+                        detail.className = 'text-muted ms-2';
+                        detail.textContent = hit.detail;
+                        link.appendChild(detail);
+                        results.appendChild(link);
+                    });
+                });
+        }, 200);
+    });
+}
+
 // Enable table search on tables with data-searchable attribute
 document.addEventListener('DOMContentLoaded', function () {
     const searchInput = document.getElementById('tableSearch');
     const searchableTable = document.querySelector('table[data-searchable]');
 
-    if (searchInput && searchableTable) {
+    if (searchInput && searchInput.hasAttribute('data-search-type')) {
+        serverSearch('tableSearch', 'searchResults');
+    } else if (searchInput && searchableTable) {
         searchTable('tableSearch', searchableTable.id);
     }
 });
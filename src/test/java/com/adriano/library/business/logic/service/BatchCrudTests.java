@@ -0,0 +1,151 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batch CRUD API against the same rows saved one call at a time: both paths must store the
+ * same rows and leave the same copy counts behind. Their throughput is compared by
+ * {@code BatchCrudBenchmarks} under {@code src/jmh}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchCrudTests {
+
+    private static final int ROWS = 200;
+    private static final int LOAN_BOOKS = 20;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void batchedBookInsertsMatchSingleSaves() {
+        long before = bookRepository.count();
+        for (int i = 0; i < ROWS; i++) {
+            bookService.save(book("single", i));
+        }
+        bookService.saveAll(rows(i -> book("batch", i)));
+
+        assertThat(bookRepository.count() - before).isEqualTo(2L * ROWS);
+        Map<String, Book> byIsbn = bookRepository.findAll().stream().collect(Collectors.toMap(Book::getIsbn, b -> b));
+        for (int i = 0; i < ROWS; i++) {
+            Book viaSingle = byIsbn.get("SINGLE-" + i);
+            Book viaBatch = byIsbn.get("BATCH-" + i);
+            assertThat(viaBatch.getTitle()).isEqualTo("batch " + i);
+            assertThat(viaSingle.getTitle()).isEqualTo("single " + i);
+            assertThat(viaBatch.getTotalCopies()).isEqualTo(viaSingle.getTotalCopies());
+            assertThat(viaBatch.getLoanedCopies()).isEqualTo(viaSingle.getLoanedCopies());
+        }
+    }
+
+    @Test
+    void batchedLoanInsertsMatchSingleSaves() {
+        User borrower = new User();
+        borrower.setEmail("batch@example.com");
+        borrower.setPassword("x");
+        Long userId = userRepository.save(borrower).getId();
+
+        List<Long> singleBooks = loanBooks("single-loans");
+        List<Long> batchBooks = loanBooks("batch-loans");
+
+        long before = loanRepository.count();
+        for (int i = 0; i < ROWS; i++) {
+            loanService.save(loan(singleBooks.get(i % LOAN_BOOKS), userId, i));
+        }
+        loanService.saveAll(rows(i -> loan(batchBooks.get(i % LOAN_BOOKS), userId, i)));
+
+        assertThat(loanRepository.count() - before).isEqualTo(2L * ROWS);
+        // Both paths must leave the same copy counts behind
+        for (int b = 0; b < LOAN_BOOKS; b++) {
+            Book viaSingle = bookRepository.findById(singleBooks.get(b)).orElseThrow();
+            Book viaBatch = bookRepository.findById(batchBooks.get(b)).orElseThrow();
+            assertThat(viaBatch.getLoanedCopies()).isEqualTo(viaSingle.getLoanedCopies());
+        }
+    }
+
+    private List<Long> loanBooks(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int b = 0; b < LOAN_BOOKS; b++) {
+            Book book = book(prefix, b);
+            book.setTotalCopies(ROWS);
+            ids.add(bookRepository.save(book).getId());
+        }
+        return ids;
+    }
+
+    private static <T> List<T> rows(IntFunction<T> row) {
+        List<T> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(row.apply(i));
+        }
+        return rows;
+    }
+
+    private static Book book(String prefix, int i) {
+        Book book = new Book();
+        book.setTitle(prefix + " " + i);
+        book.setIsbn(prefix.toUpperCase() + "-" + i);
+        book.setTotalCopies(1);
+        book.setLoanedCopies(0);
+        return book;
+    }
+
+    private static Loan loan(Long bookId, Long userId, int i) {
+        Book book = new Book();
+        book.setId(bookId);
+        User user = new User();
+        user.setId(userId);
+
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setUser(user);
+        loan.setLoanDate(LocalDate.now().minusDays(i % 30));
+        loan.setReturnDate(loan.getLoanDate().plusDays(7));
+        return loan;
+    }
+}
@@ -0,0 +1,169 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The index against a day-by-day count of the same loans, plus the edge cases of closed
+ * intervals and the undo of changes made in a transaction that rolls back.
+ */
+class BookAvailabilityIndexTests {
+
+    private static final LocalDate DAY0 = LocalDate.of(2025, 1, 1);
+
+    // Only load() reads the repository
+    private final BookAvailabilityIndex index = new BookAvailabilityIndex(null);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void peakMatchesADailyCount() {
+        Random random = new Random(11);
+        Map<Long, Loan> loans = new HashMap<>();
+
+        for (long id = 1; id <= 1_500; id++) {
+            int change = random.nextInt(4);
+            if (change == 0 && !loans.isEmpty()) {
+                Long gone = loans.keySet().stream().skip(random.nextInt(loans.size())).findFirst().orElseThrow();
+                assertThat(index.remove(gone)).isEqualTo(loans.remove(gone).getBook().getId());
+            } else if (change == 1 && !loans.isEmpty()) {
+                // Moved to other dates, possibly another book
+                Loan moved = loans.values().stream().skip(random.nextInt(loans.size())).findFirst().orElseThrow();
+                Long oldBook = moved.getBook().getId();
+                Loan edited = randomLoan(random, moved.getId());
+                assertThat(index.put(edited)).isEqualTo(oldBook);
+                loans.put(edited.getId(), edited);
+            } else {
+                Loan added = randomLoan(random, id);
+                assertThat(index.put(added)).isNull();
+                loans.put(id, added);
+            }
+
+            long bookId = 1 + random.nextInt(3);
+            LocalDate from = DAY0.plusDays(random.nextInt(120) - 10);
+            LocalDate to = from.plusDays(random.nextInt(30));
+            Long exclude = random.nextBoolean() ? null : (long) random.nextInt((int) id + 1);
+            assertThat(index.peakConcurrentLoans(bookId, from, to, exclude))
+                    .isEqualTo(dailyPeak(loans, bookId, from, to, exclude));
+        }
+    }
+
+    @Test
+    void returnDayStillCounts() {
+        index.put(loan(1, 1, 0, 4));
+        index.put(loan(2, 1, 4, 8));
+        index.put(loan(3, 1, 9, 9));
+
+        assertThat(index.peakConcurrentLoans(1L, day(0), day(10), null)).isEqualTo(2);
+        assertThat(index.loansOn(1L, day(4))).isEqualTo(2);
+        assertThat(index.loansOn(1L, day(8))).isEqualTo(1);
+        assertThat(index.loansOn(1L, day(9))).isEqualTo(1);
+        assertThat(index.peakConcurrentLoans(1L, day(5), day(10), null)).isEqualTo(1);
+        // The loan being edited does not count against itself
+        assertThat(index.peakConcurrentLoans(1L, day(4), day(4), 2L)).isEqualTo(1);
+        assertThat(index.peakConcurrentLoans(2L, day(0), day(10), null)).isZero();
+    }
+
+    @Test
+    void sameDayLoansStack() {
+        for (long id = 1; id <= 3; id++) {
+            index.put(loan(id, 1, 5, 5));
+        }
+
+        assertThat(index.loansOn(1L, day(5))).isEqualTo(3);
+        assertThat(index.loansOn(1L, day(6))).isZero();
+        assertThat(index.peakConcurrentLoans(1L, day(0), day(9), 3L)).isEqualTo(2);
+    }
+
+    @Test
+    void rollbackUndoesChangesMadeInTheTransaction() {
+        index.put(loan(1, 1, 0, 9));
+        index.put(loan(2, 1, 5, 9));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(loan(3, 1, 0, 9));
+        index.put(loan(1, 2, 0, 9));
+        index.remove(2L);
+        assertThat(index.loansOn(1L, day(5))).isEqualTo(1);
+        assertThat(index.bookOf(1L)).isEqualTo(2L);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(index.loansOn(1L, day(5))).isEqualTo(2);
+        assertThat(index.loansOn(2L, day(5))).isZero();
+        assertThat(index.bookOf(1L)).isEqualTo(1L);
+        assertThat(index.bookOf(2L)).isEqualTo(1L);
+        assertThat(index.bookOf(3L)).isNull();
+    }
+
+    @Test
+    void commitKeepsChangesMadeInTheTransaction() {
+        index.put(loan(1, 1, 0, 9));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(loan(2, 1, 0, 9));
+        index.remove(1L);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.loansOn(1L, day(5))).isEqualTo(1);
+        assertThat(index.bookOf(1L)).isNull();
+        assertThat(index.bookOf(2L)).isEqualTo(1L);
+    }
+
+    // What the transaction manager does once the transaction ends
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+
+    private static int dailyPeak(Map<Long, Loan> loans, long bookId, LocalDate from, LocalDate to, Long exclude) {
+        int peak = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            int out = 0;
+            for (Loan loan : loans.values()) {
+                if (loan.getBook().getId() != bookId || loan.getId().equals(exclude)) continue;
+                if (!d.isBefore(loan.getLoanDate()) && !d.isAfter(loan.getReturnDate())) out++;
+            }
+            peak = Math.max(peak, out);
+        }
+        return peak;
+    }
+
+    private static Loan randomLoan(Random random, long id) {
+        int start = random.nextInt(100);
+        return loan(id, 1 + random.nextInt(3), start, start + random.nextInt(15));
+    }
+
+    private static Loan loan(long id, long bookId, int startDay, int endDay) {
+        Book book = new Book();
+        book.setId(bookId);
+        Loan loan = new Loan();
+        loan.setId(id);
+        loan.setBook(book);
+        loan.setLoanDate(day(startDay));
+        loan.setReturnDate(day(endDay));
+        return loan;
+    }
+
+    private static LocalDate day(int n) {
+        return DAY0.plusDays(n);
+    }
+}
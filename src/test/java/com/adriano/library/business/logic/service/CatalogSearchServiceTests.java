@@ -0,0 +1,118 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.dto.SearchHit;
+import com.adriano.library.business.domain.entity.Author;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The search service fed through its change hooks only, as the services do after each commit;
+ * the repositories are read by rebuild() alone.
+ */
+class CatalogSearchServiceTests {
+
+    private final CatalogSearchService search = new CatalogSearchService(null, null, null);
+
+    private Book dune;
+    private Book emma;
+
+    @BeforeEach
+    void catalog() {
+        dune = book(1L, "Dune", "978-0-441-17271-9");
+        emma = book(2L, "Emma", "978-0-14-143958-7");
+        search.bookChanged(dune);
+        search.bookChanged(emma);
+        search.authorChanged(author(10L, "Frank Herbert", dune));
+        search.authorChanged(author(11L, "Jane Austen", emma));
+        search.publisherChanged(publisher(20L, "Chilton Books", dune));
+    }
+
+    @Test
+    void booksAreFoundByTitleIsbnAuthorAndPublisher() {
+        assertThat(hits("dune", "book")).containsExactly("book:1");
+        assertThat(hits("9780441172719", "book")).containsExactly("book:1");
+        // Both ISBNs share 978 and 0; the group that only Emma has ranks it first
+        assertThat(hits("978-0-14", "book")).containsExactly("book:2", "book:1");
+        assertThat(hits("herbert", "book")).containsExactly("book:1");
+        assertThat(hits("chilton", "book")).containsExactly("book:1");
+    }
+
+    @Test
+    void typeRestrictsTheHitsAndNamesOutrankTheBookTitleTheyCarry() {
+        assertThat(hits("austen", null)).containsExactly("author:11", "book:2");
+        assertThat(hits("austen", "author")).containsExactly("author:11");
+        assertThat(hits("austen", "nonsense")).containsExactly("author:11", "book:2");
+        // Author documents carry their book's title at a lower weight
+        assertThat(hits("dune", "author")).containsExactly("author:10");
+        assertThat(hits("dune", null)).startsWith("book:1");
+
+        SearchHit author = search.search("austen", "author", 10).get(0);
+        assertThat(author.label()).isEqualTo("Jane Austen");
+        assertThat(author.detail()).isEqualTo("Emma");
+    }
+
+    @Test
+    void renamesReplaceTheOldTerms() {
+        dune.setTitle("Dune Messiah");
+        search.bookChanged(dune);
+        search.authorChanged(author(11L, "Jane Austen-Leigh", emma));
+
+        assertThat(hits("messiah", null)).containsExactly("book:1", "author:10", "publisher:20");
+        assertThat(hits("leigh", null)).containsExactly("author:11", "book:2");
+        assertThat(search.search("herbert", "author", 10).get(0).detail()).isEqualTo("Dune Messiah");
+    }
+
+    @Test
+    void deletingABookDropsItsAuthorsAndPublishers() {
+        search.bookDeleted(1L);
+
+        assertThat(hits("dune", null)).isEmpty();
+        assertThat(hits("herbert", null)).isEmpty();
+        assertThat(hits("chilton", null)).isEmpty();
+        assertThat(hits("austen", null)).containsExactly("author:11", "book:2");
+    }
+
+    @Test
+    void deletingAnAuthorOrPublisherReindexesItsBook() {
+        search.authorDeleted(10L);
+        search.publisherDeleted(20L);
+
+        assertThat(hits("herbert", null)).isEmpty();
+        assertThat(hits("chilton", null)).isEmpty();
+        assertThat(hits("dune", null)).containsExactly("book:1");
+    }
+
+    private List<String> hits(String query, String type) {
+        return search.search(query, type, 10).stream().map(hit -> hit.type() + ":" + hit.id()).toList();
+    }
+
+    private static Book book(Long id, String title, String isbn) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        return book;
+    }
+
+    private static Author author(Long id, String name, Book book) {
+        Author author = new Author();
+        author.setId(id);
+        author.setName(name);
+        author.setBook(book);
+        return author;
+    }
+
+    private static Publisher publisher(Long id, String name, Book book) {
+        Publisher publisher = new Publisher();
+        publisher.setId(id);
+        publisher.setName(name);
+        publisher.setBook(book);
+        return publisher;
+    }
+}
@@ -0,0 +1,151 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.event.BookDeleted;
+import com.adriano.library.business.domain.event.DomainEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainEventBusTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingListener listener = new RecordingListener();
+    private DomainEventBus bus;
+
+    @AfterEach
+    void stopBus() {
+        listener.release();
+        if (bus != null && bus.isRunning()) bus.stop();
+    }
+
+    @Test
+    void queuedEventsArriveInBatchesInPublishOrder() throws InterruptedException {
+        bus = start(100, 3, false);
+
+        bus.publish(event(0));
+        listener.awaitFirstBatch();
+        publish(1, 6);
+        listener.release();
+
+        assertThat(bus.awaitIdle(Duration.ofSeconds(5))).isTrue();
+        assertThat(listener.batches).containsExactly(
+                events(0, 1), events(1, 4), events(4, 6));
+    }
+
+    @Test
+    void fullQueueMakesThePublisherWaitInsteadOfJumpingAhead() throws InterruptedException {
+        bus = start(1, 10, false);
+
+        bus.publish(event(0));
+        listener.awaitFirstBatch();
+        bus.publish(event(1));
+        Thread publisher = Thread.ofVirtual().start(() -> bus.publish(event(2)));
+
+        publisher.join(300);
+        assertThat(publisher.isAlive()).isTrue();
+        assertThat(listener.delivered()).containsExactly(event(0));
+        assertThat(meterRegistry.counter("library.events.overflow").count()).isPositive();
+
+        listener.release();
+        publisher.join(5000);
+        assertThat(bus.awaitIdle(Duration.ofSeconds(5))).isTrue();
+        assertThat(listener.delivered()).containsExactlyElementsOf(events(0, 3));
+    }
+
+    @Test
+    void stopDrainsTheQueueAndLaterEventsFollowIt() throws InterruptedException {
+        bus = start(100, 2, false);
+
+        bus.publish(event(0));
+        listener.awaitFirstBatch();
+        publish(1, 5);
+        Thread stopper = Thread.ofVirtual().start(bus::stop);
+        listener.release();
+        stopper.join(5000);
+
+        assertThat(bus.isRunning()).isFalse();
+        assertThat(listener.delivered()).containsExactlyElementsOf(events(0, 5));
+
+        bus.publish(event(5));
+        assertThat(listener.delivered()).containsExactlyElementsOf(events(0, 6));
+        assertThat(listener.threads.getLast()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void awaitDeliveryReturnsOnlyOnceTheListenersHaveRun() {
+        listener.release();
+        bus = start(100, 10, true);
+
+        bus.publish(event(0));
+
+        assertThat(listener.delivered()).containsExactly(event(0));
+        assertThat(listener.threads).containsExactly("domain-events");
+    }
+
+    private DomainEventBus start(int capacity, int batchSize, boolean awaitDelivery) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("recording", listener));
+        DomainEventBus started = new DomainEventBus(beans.getBeanProvider(DomainEventListener.class), meterRegistry,
+                capacity, batchSize, Duration.ofMillis(20), Duration.ofSeconds(5), awaitDelivery);
+        started.start();
+        return started;
+    }
+
+    private void publish(long from, long to) {
+        LongStream.range(from, to).forEach(id -> bus.publish(event(id)));
+    }
+
+    private static DomainEvent event(long id) {
+        return new BookDeleted(id);
+    }
+
+    private static List<DomainEvent> events(long from, long to) {
+        return LongStream.range(from, to).mapToObj(DomainEventBusTests::event).toList();
+    }
+
+    // Holds the first batch until released, so later events pile up in the queue
+    private static class RecordingListener implements DomainEventListener {
+
+        final List<List<DomainEvent>> batches = new CopyOnWriteArrayList<>();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstBatch = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void onEvents(List<DomainEvent> events) {
+            batches.add(events);
+            threads.add(Thread.currentThread().getName());
+            firstBatch.countDown();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitFirstBatch() throws InterruptedException {
+            assertThat(firstBatch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<DomainEvent> delivered() {
+            List<DomainEvent> all = new ArrayList<>();
+            batches.forEach(all::addAll);
+            return all;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.enums.ExportFormat;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTests {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void csvDefusesFormulasButKeepsNumbersAndQuoting() throws Exception {
+        Book formula = book("=HYPERLINK(\"http://evil.test\",\"Open\")", "EXPORT-1");
+        Book plain = book("Minus-Sign, The", "-EXPORT-2");
+
+        StringWriter out = new StringWriter();
+        exportService.exportBooks(ExportFormat.CSV, out);
+
+        assertThat(out.toString().split("\r\n")).contains(
+                formula.getId() + ",\"'=HYPERLINK(\"\"http://evil.test\"\",\"\"Open\"\")\",EXPORT-1,3,0",
+                plain.getId() + ",\"Minus-Sign, The\",'-EXPORT-2,3,0");
+    }
+
+    private Book book(String title, String isbn) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setTotalCopies(3);
+        book.setLoanedCopies(0);
+        return bookRepository.save(book);
+    }
+}
@@ -0,0 +1,101 @@
+package com.adriano.library.business.logic.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTests {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void tokenizeFoldsCaseAndAccentsAndSplitsOnPunctuation() {
+        assertThat(InvertedIndex.tokenize("Café  Crème-Brûlée, 2nd ed. CAFE"))
+                .containsExactly("cafe", "creme", "brulee", "2nd", "ed");
+        assertThat(InvertedIndex.tokenize("978-0-261")).containsExactly("978", "0", "261");
+        assertThat(InvertedIndex.tokenize(" -- ")).isEmpty();
+        assertThat(InvertedIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void exactBeatsPrefixAndShorterCompletionsRankFirst() {
+        index.put("b:1", Map.of("Tolkien", 1.0));
+        index.put("b:2", Map.of("Tolkienesque", 1.0));
+
+        assertThat(keys(search("tolkien", 10))).containsExactly("b:1", "b:2");
+        assertThat(search("tolkien", 10).get(0).score()).isEqualTo(3.0);
+        assertThat(keys(search("tol", 10))).containsExactly("b:1", "b:2");
+        assertThat(search("tol", 10).get(0).score()).isEqualTo(2.0 * 3 / 7);
+    }
+
+    @Test
+    void misspellingsMatchByTrigramsBelowPrefixes() {
+        index.put("b:1", Map.of("The Hobbit", 1.0));
+        index.put("b:2", Map.of("Hobbiton", 1.0));
+
+        List<InvertedIndex.Match> typo = search("hobit", 10);
+        assertThat(keys(typo)).containsExactly("b:1");
+        // ^ho hob bit it$ shared out of 5 + 6 grams
+        assertThat(typo.get(0).score()).isEqualTo(4.0 / 7);
+
+        // A prefix is not scored a second time as a similar token
+        assertThat(search("hobbi", 10).get(0).score()).isEqualTo(2.0 * 5 / 6);
+        // Too short for trigrams, and not a prefix of anything
+        assertThat(search("hb", 10)).isEmpty();
+    }
+
+    @Test
+    void queryTokensAddUpAndTiesBreakByKey() {
+        index.put("b:3", Map.of("Dune", 1.0));
+        index.put("b:2", Map.of("Dune Messiah", 1.0));
+        index.put("b:1", Map.of("Dune", 1.0));
+
+        assertThat(keys(search("dune messiah", 10))).containsExactly("b:2", "b:1", "b:3");
+        assertThat(keys(search("dune", 10))).containsExactly("b:1", "b:2", "b:3");
+        assertThat(keys(search("dune", 2))).containsExactly("b:1", "b:2");
+    }
+
+    @Test
+    void fieldWeightsScaleTheScoreAndTheBestFieldWins() {
+        index.put("b:1", Map.of("Asimov", 1.0));
+        index.put("b:2", Map.of("Foundation", 3.0, "Asimov", 2.0));
+
+        assertThat(keys(search("asimov", 10))).containsExactly("b:2", "b:1");
+        assertThat(search("asimov", 10).get(0).score()).isEqualTo(6.0);
+    }
+
+    @Test
+    void keyFilterRestrictsTheResults() {
+        index.put("book:1", Map.of("Emma", 1.0));
+        index.put("author:1", Map.of("Emma Donoghue", 1.0));
+
+        assertThat(keys(index.search("emma", 10, key -> key.startsWith("author:")))).containsExactly("author:1");
+    }
+
+    @Test
+    void putReplacesAndRemoveForgetsTheDocument() {
+        index.put("b:1", Map.of("Neuromancer", 1.0));
+        index.put("b:1", Map.of("Count Zero", 1.0));
+
+        assertThat(search("neuromancer", 10)).isEmpty();
+        assertThat(search("neuromanser", 10)).isEmpty();
+        assertThat(keys(search("zero", 10))).containsExactly("b:1");
+        assertThat(keys(search("zeroo", 10))).containsExactly("b:1");
+
+        index.remove("b:1");
+        assertThat(search("zero", 10)).isEmpty();
+        assertThat(search("zeroo", 10)).isEmpty();
+        index.remove("b:1");
+    }
+
+    private List<InvertedIndex.Match> search(String query, int limit) {
+        return index.search(query, limit, key -> true);
+    }
+
+    private static List<String> keys(List<InvertedIndex.Match> matches) {
+        return matches.stream().map(InvertedIndex.Match::key).toList();
+    }
+}
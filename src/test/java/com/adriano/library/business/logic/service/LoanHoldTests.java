@@ -0,0 +1,135 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.LoanHold;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.domain.enums.HoldStatus;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanHoldRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A single-copy book lent out, two users queued for it: deleting the loan lends the copy to the
+ * first in line within the same call, the second moves up and lapses in the expiry sweep.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanHoldTests {
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private HoldSweep holdSweep;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanHoldRepository holdRepository;
+
+    @BeforeEach
+    void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void freedCopyGoesToTheOldestHold() {
+        Book book = newBook(1);
+        Long lenderId = newUser();
+        Long firstId = newUser();
+        Long secondId = newUser();
+        Loan out = newLoan(book, lenderId);
+        loanService.save(out);
+
+        LoanHold first = loanService.placeHold(book.getId(), firstId);
+        LoanHold second = loanService.placeHold(book.getId(), secondId);
+        assertThat(first.getStatus()).isEqualTo(HoldStatus.WAITING);
+        assertThat(loanService.queuePosition(first)).isEqualTo(1);
+        assertThat(loanService.queuePosition(second)).isEqualTo(2);
+        assertThatThrownBy(() -> loanService.placeHold(book.getId(), firstId)).isInstanceOf(IllegalArgumentException.class);
+
+        loanService.deleteById(out.getId());
+
+        LoanHold served = holdRepository.findById(first.getId()).orElseThrow();
+        assertThat(served.getStatus()).isEqualTo(HoldStatus.ALLOCATED);
+        Loan allocated = loanRepository.findById(served.getLoanId()).orElseThrow();
+        assertThat(allocated.getUser().getId()).isEqualTo(firstId);
+        assertThat(allocated.getLoanDate()).isEqualTo(LocalDate.now());
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getLoanedCopies()).isEqualTo(1);
+        assertThat(loanService.queuePosition(second)).isEqualTo(1);
+
+        // Long past its expiry day, with the copy still out
+        assertThat(holdSweep.run(LocalDate.now().plusYears(1))).isEqualTo(1);
+        assertThat(holdRepository.findById(second.getId()).orElseThrow().getStatus()).isEqualTo(HoldStatus.EXPIRED);
+        assertThat(loanService.queuePosition(second)).isZero();
+    }
+
+    @Test
+    void holdOnAFreeCopyIsServedAtOnce() {
+        Book book = newBook(1);
+        LoanHold hold = loanService.placeHold(book.getId(), newUser());
+
+        assertThat(hold.getStatus()).isEqualTo(HoldStatus.ALLOCATED);
+        assertThat(loanRepository.findById(hold.getLoanId())).isPresent();
+    }
+
+    private Book newBook(int copies) {
+        Book book = new Book();
+        book.setTitle("Waiting list " + IDS.incrementAndGet());
+        book.setIsbn("HOLD-" + IDS.get());
+        book.setTotalCopies(copies);
+        book.setLoanedCopies(0);
+        return bookRepository.save(book);
+    }
+
+    private Long newUser() {
+        User user = new User();
+        user.setEmail("holder" + IDS.incrementAndGet() + "@example.com");
+        user.setPassword("x");
+        return userRepository.save(user).getId();
+    }
+
+    private static Loan newLoan(Book book, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setUser(user);
+        loan.setLoanDate(LocalDate.now());
+        loan.setReturnDate(LocalDate.now().plusDays(5));
+        return loan;
+    }
+}
@@ -0,0 +1,98 @@
+package com.adriano.library.business.logic.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Random inserts and removals checked against a plain list of the same intervals: after every
+ * change, each overlap query must visit exactly the intervals a full scan finds.
+ */
+class LoanIntervalTreeTests {
+
+    private record Interval(long id, long start, long end) {
+    }
+
+    @Test
+    void overlapQueriesMatchAFullScan() {
+        Random random = new Random(7);
+        LoanIntervalTree tree = new LoanIntervalTree();
+        List<Interval> all = new ArrayList<>();
+
+        for (long id = 0; id < 2_000; id++) {
+            if (!all.isEmpty() && random.nextInt(3) == 0) {
+                Interval gone = all.remove(random.nextInt(all.size()));
+                assertThat(tree.remove(gone.id(), gone.start())).isTrue();
+            } else {
+                long start = random.nextInt(365);
+                Interval added = new Interval(id, start, start + random.nextInt(30));
+                tree.insert(added.id(), added.start(), added.end());
+                all.add(added);
+            }
+            assertThat(tree.size()).isEqualTo(all.size());
+
+            long from = random.nextInt(400) - 20;
+            long to = from + random.nextInt(40);
+            assertThat(overlapping(tree, from, to)).isEqualTo(scan(all, from, to));
+        }
+    }
+
+    @Test
+    void removingAnUnknownIntervalChangesNothing() {
+        LoanIntervalTree tree = new LoanIntervalTree();
+        tree.insert(1, 10, 20);
+
+        assertThat(tree.remove(1, 11)).isFalse();
+        assertThat(tree.remove(2, 10)).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(overlapping(tree, 20, 20)).containsExactly(1L);
+    }
+
+    @Test
+    void sameStartIsOrderedById() {
+        LoanIntervalTree tree = new LoanIntervalTree();
+        for (long id = 1; id <= 5; id++) {
+            tree.insert(id, 10, 10 + id);
+        }
+
+        assertThat(tree.remove(3, 10)).isTrue();
+        assertThat(overlapping(tree, 13, 100)).containsExactly(4L, 5L);
+        assertThat(overlapping(tree, 10, 10)).containsExactly(1L, 2L, 4L, 5L);
+    }
+
+    // Sorted input would make an unbalanced tree a linked list and overflow the recursive walks
+    @Test
+    void staysBalancedUnderSortedInsertsAndRemovals() {
+        LoanIntervalTree tree = new LoanIntervalTree();
+        int n = 200_000;
+        for (int i = 0; i < n; i++) {
+            tree.insert(i, i, i + 2);
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertThat(tree.remove(i, i)).isTrue();
+        }
+
+        assertThat(tree.size()).isEqualTo(n / 2);
+        assertThat(overlapping(tree, 100, 103)).containsExactly(99L, 101L, 103L);
+        assertThat(overlapping(tree, n + 1, n + 1)).containsExactly((long) n - 1);
+    }
+
+    private static TreeSet<Long> overlapping(LoanIntervalTree tree, long from, long to) {
+        TreeSet<Long> ids = new TreeSet<>();
+        tree.forEachOverlapping(from, to, (id, start, end) -> assertThat(ids.add(id)).isTrue());
+        return ids;
+    }
+
+    private static TreeSet<Long> scan(List<Interval> all, long from, long to) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (Interval interval : all) {
+            if (interval.start() <= to && interval.end() >= from) ids.add(interval.id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,149 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.ReminderCheckpoint;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.ReminderCheckpointRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reminder runs against a local SMTP server (GreenMail): one mail per user however many of
+ * their loans are due, nothing for loans outside the window or already ended, and no second
+ * mail once a user is checkpointed.
+ */
+@SpringBootTest(properties = {"spring.mail.host=localhost", "spring.mail.port=3025", "library.reminders.rate=0",
+        "library.reminders.messages-per-connection=2"})
+@ActiveProfiles("test")
+class LoanRemindersTests {
+
+    private static final String DOMAIN = "reminders.test";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private LoanReminders reminders;
+
+    @Autowired
+    private ReminderCheckpointRepository checkpoints;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private final LocalDate today = LocalDate.now();
+    private Book book;
+
+    @BeforeEach
+    void seedBook() {
+        book = new Book();
+        book.setTitle("Reminder Title " + USERS.incrementAndGet());
+        book.setIsbn("REMIND-" + USERS.get());
+        book.setTotalCopies(10);
+        book.setLoanedCopies(0);
+        book = bookRepository.save(book);
+    }
+
+    @Test
+    void oneMailPerUserAndNoneTwice() throws Exception {
+        User twoDue = user();
+        loan(twoDue, today.minusDays(5), today.plusDays(1));
+        loan(twoDue, today.minusDays(3), today.plusDays(2));
+        // Saved as RETURNED, its return date being past
+        User ended = user();
+        loan(ended, today.minusDays(7), today.minusDays(1));
+        User notYet = user();
+        loan(notYet, today.minusDays(1), today.plusDays(20));
+
+        reminders.run(today);
+
+        // Other tests' users may be due as well
+        assertThat(recipients()).containsOnlyOnce(twoDue.getEmail())
+                .doesNotContain(ended.getEmail(), notYet.getEmail());
+        MimeMessage twoDueMail = mailTo(twoDue.getEmail());
+        assertThat(twoDueMail.getSubject()).isEqualTo("Library: loans due soon");
+        String twoDueText = GreenMailUtil.getBody(twoDueMail);
+        assertThat(twoDueText).contains(today.plusDays(1).toString()).contains(today.plusDays(2).toString());
+
+        greenMail.reset();
+        assertThat(reminders.run(today)).isZero();
+        assertThat(recipients()).isEmpty();
+    }
+
+    @Test
+    void interruptedRunResumesAfterTheLastUserMailed() throws Exception {
+        // Runs for another day than the test above, so the two don't share a checkpoint
+        LocalDate day = today.plusDays(1);
+        User alreadyMailed = user();
+        loan(alreadyMailed, today.minusDays(1), day.plusDays(1));
+        User pending = user();
+        loan(pending, today.minusDays(1), day.plusDays(1));
+
+        ReminderCheckpoint crashed = new ReminderCheckpoint(day);
+        crashed.setLastUserId(alreadyMailed.getId());
+        crashed.setSent(1);
+        checkpoints.save(crashed);
+
+        reminders.run(day);
+
+        assertThat(recipients()).containsOnlyOnce(pending.getEmail()).doesNotContain(alreadyMailed.getEmail());
+        ReminderCheckpoint finished = checkpoints.findById(day).orElseThrow();
+        assertThat(finished.isCompleted()).isTrue();
+        assertThat(finished.getLastUserId()).isGreaterThanOrEqualTo(pending.getId());
+    }
+
+    private List<String> recipients() throws Exception {
+        List<String> recipients = new ArrayList<>();
+        for (MimeMessage message : greenMail.getReceivedMessagesForDomain(DOMAIN)) {
+            recipients.add(GreenMailUtil.getAddressList(message.getAllRecipients()));
+        }
+        return recipients;
+    }
+
+    private MimeMessage mailTo(String email) {
+        return Arrays.stream(greenMail.getReceivedMessagesForDomain(email)).findFirst().orElseThrow();
+    }
+
+    private User user() {
+        User user = new User();
+        user.setEmail("reader" + USERS.incrementAndGet() + "@" + DOMAIN);
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    private void loan(User user, LocalDate loanDate, LocalDate returnDate) {
+        Loan loan = new Loan();
+        loan.setUser(user);
+        loan.setBook(book);
+        loan.setLoanDate(loanDate);
+        loan.setReturnDate(returnDate);
+        loanRepository.save(loan);
+    }
+}
@@ -0,0 +1,221 @@
+package com.adriano.library.business.logic.service;
+
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.persistence.repository.BookRepository;
+import com.adriano.library.business.persistence.repository.LoanRepository;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Hammers one popular title from a growing number of threads and checks that no day is
+ * ever booked beyond the book's copies, that loanedCopies never breaks its constraint and
+ * that every attempt ends in either a booking or a clean rejection. Checkout throughput is
+ * measured by {@code CheckoutBenchmarks} under {@code src/jmh}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanServiceConcurrencyTests {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int TOTAL_COPIES = 3;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void concurrentCheckoutsNeverOverbook() throws Exception {
+        User borrower = new User();
+        borrower.setEmail("stress@example.com");
+        borrower.setPassword("x");
+        Long userId = userRepository.save(borrower).getId();
+
+        for (int threads : THREAD_COUNTS) {
+            Book book = new Book();
+            book.setTitle("Popular " + threads);
+            book.setIsbn("STRESS-" + threads);
+            book.setTotalCopies(TOTAL_COPIES);
+            book.setLoanedCopies(0);
+            Long bookId = bookRepository.save(book).getId();
+
+            AtomicInteger booked = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                pool.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            loanService.save(newLoan(bookId, userId));
+                            booked.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    SecurityContextHolder.clearContext();
+                    return null;
+                });
+            }
+
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+            assertThat(failed.get()).isZero();
+            assertThat(booked.get() + rejected.get()).isEqualTo(threads * ATTEMPTS_PER_THREAD);
+            assertThat(peakDailyLoans(bookId)).isLessThanOrEqualTo(TOTAL_COPIES);
+            Book reloaded = bookRepository.findById(bookId).orElseThrow();
+            assertThat(reloaded.getLoanedCopies()).isBetween(0, TOTAL_COPIES);
+        }
+    }
+
+    @Test
+    void saveFromAnOlderVersionIsRejected() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        try {
+            User borrower = new User();
+            borrower.setEmail("stale@example.com");
+            borrower.setPassword("x");
+            Long userId = userRepository.save(borrower).getId();
+            Book book = new Book();
+            book.setTitle("Edited twice");
+            book.setIsbn("STALE-1");
+            book.setTotalCopies(TOTAL_COPIES);
+            book.setLoanedCopies(0);
+            Long bookId = bookRepository.save(book).getId();
+
+            Loan loan = newLoan(bookId, userId);
+            loanService.save(loan);
+            long read = loanRepository.findById(loan.getId()).orElseThrow().getVersion();
+
+            // Two forms opened on the same version: the first save wins, the second is stale
+            loanService.update(loan.getId(), edit(loan, read, 1));
+            assertThatThrownBy(() -> loanService.update(loan.getId(), edit(loan, read, 2)))
+                    .isInstanceOf(OptimisticLockingFailureException.class);
+            assertThat(loanRepository.findById(loan.getId()).orElseThrow().getReturnDate())
+                    .isEqualTo(loan.getReturnDate().plusDays(1));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void bookEditOutlivesLoanActivity() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        try {
+            User borrower = new User();
+            borrower.setEmail("busy@example.com");
+            borrower.setPassword("x");
+            Long userId = userRepository.save(borrower).getId();
+            Book book = new Book();
+            book.setTitle("Edited while lent");
+            book.setIsbn("BUSY-1");
+            book.setTotalCopies(TOTAL_COPIES);
+            book.setLoanedCopies(0);
+            Long bookId = bookRepository.save(book).getId();
+            long read = bookRepository.findById(bookId).orElseThrow().getVersion();
+
+            // A checkout lands while the edit form is open
+            Loan loan = newLoan(bookId, userId);
+            loan.setLoanDate(LocalDate.now());
+            loanService.save(loan);
+
+            Book form = new Book();
+            form.setId(bookId);
+            form.setVersion(read);
+            form.setTitle("Renamed while lent");
+            form.setIsbn("BUSY-1");
+            form.setTotalCopies(TOTAL_COPIES + 1);
+            bookService.update(bookId, form);
+
+            Book stored = bookRepository.findById(bookId).orElseThrow();
+            assertThat(stored.getTitle()).isEqualTo("Renamed while lent");
+            assertThat(stored.getLoanedCopies()).isEqualTo(1);
+
+            // A second form opened before that edit is still stale
+            form.setTitle("Lost edit");
+            assertThatThrownBy(() -> bookService.update(bookId, form)).isInstanceOf(OptimisticLockingFailureException.class);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Loan edit(Loan loan, long version, int extraDays) {
+        Loan edited = newLoan(loan.getBook().getId(), loan.getUser().getId());
+        edited.setId(loan.getId());
+        edited.setVersion(version);
+        edited.setLoanDate(loan.getLoanDate());
+        edited.setReturnDate(loan.getReturnDate().plusDays(extraDays));
+        return edited;
+    }
+
+    private static Loan newLoan(Long bookId, Long userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Book book = new Book();
+        book.setId(bookId);
+        User user = new User();
+        user.setId(userId);
+
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setUser(user);
+        loan.setLoanDate(LocalDate.now().plusDays(random.nextInt(30)));
+        loan.setReturnDate(loan.getLoanDate().plusDays(1 + random.nextInt(7)));
+        return loan;
+    }
+
+    private int peakDailyLoans(Long bookId) {
+        TreeMap<LocalDate, Integer> perDay = new TreeMap<>();
+        List<Loan> loans = new ArrayList<>(loanRepository.findAll());
+        for (Loan loan : loans) {
+            if (!loan.getBook().getId().equals(bookId)) continue;
+            for (LocalDate d = loan.getLoanDate(); !d.isAfter(loan.getReturnDate()); d = d.plusDays(1)) {
+                perDay.merge(d, 1, Integer::sum);
+            }
+        }
+        return perDay.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+}
@@ -0,0 +1,149 @@
+package com.adriano.library.business.persistence.repository;
+
+import com.adriano.library.business.domain.dto.AuthorRow;
+import com.adriano.library.business.domain.dto.BookRow;
+import com.adriano.library.business.domain.dto.LoanRow;
+import com.adriano.library.business.domain.dto.PublisherRow;
+import com.adriano.library.business.domain.entity.Author;
+import com.adriano.library.business.domain.entity.Book;
+import com.adriano.library.business.domain.entity.Loan;
+import com.adriano.library.business.domain.entity.Publisher;
+import com.adriano.library.business.domain.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each list page, first or following, must cost exactly one SQL statement no matter how
+ * many rows it shows or which associations the template renders.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListRowQueryTests {
+
+    private static final int ROWS = 30;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PublisherRepository publisherRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setEmail("rows" + i + "@example.com");
+            user.setPassword("x");
+            entityManager.persist(user);
+            users.add(user);
+        }
+        userId = users.get(0).getId();
+
+        for (int i = 0; i < ROWS; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + (ROWS - i));
+            book.setIsbn("ISBN-" + i);
+            book.setTotalCopies(5);
+            book.setLoanedCopies(0);
+            entityManager.persist(book);
+
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setBook(book);
+            entityManager.persist(author);
+
+            Publisher publisher = new Publisher();
+            publisher.setName("Publisher " + i);
+            publisher.setBook(book);
+            entityManager.persist(publisher);
+
+            Loan loan = new Loan();
+            loan.setBook(book);
+            loan.setUser(users.get(i % users.size()));
+            loan.setLoanDate(LocalDate.now().minusDays(i));
+            loan.setReturnDate(LocalDate.now().plusDays(i));
+            entityManager.persist(loan);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bookPagesTakeOneStatement() {
+        Sort byTitle = Sort.by("title");
+        Window<BookRow> first = singleStatement(() -> bookRepository.findRows(null, PAGE_SIZE, byTitle));
+        assertThat(first.getContent()).hasSize(PAGE_SIZE);
+        assertThat(first.hasNext()).isTrue();
+
+        Long cursor = first.getContent().get(PAGE_SIZE - 1).getId();
+        Window<BookRow> second = singleStatement(() -> bookRepository.findRows(cursor, PAGE_SIZE, byTitle));
+        assertThat(second.getContent()).hasSize(ROWS - PAGE_SIZE);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent().get(0).getTitle()).isGreaterThan(first.getContent().get(PAGE_SIZE - 1).getTitle());
+    }
+
+    @Test
+    void authorAndPublisherPagesTakeOneStatement() {
+        Window<AuthorRow> authors = singleStatement(() -> authorRepository.findRows(null, PAGE_SIZE, Sort.by("name")));
+        assertThat(authors.getContent()).hasSize(PAGE_SIZE).allSatisfy(row -> assertThat(row.getBookTitle()).isNotNull());
+
+        Window<PublisherRow> publishers = singleStatement(() -> publisherRepository.findRows(null, PAGE_SIZE, Sort.by("name")));
+        assertThat(publishers.getContent()).hasSize(PAGE_SIZE).allSatisfy(row -> assertThat(row.getBookTitle()).isNotNull());
+    }
+
+    @Test
+    void loanPagesTakeOneStatement() {
+        Sort byLoanDate = Sort.by(Sort.Direction.DESC, "loanDate");
+        Window<LoanRow> all = singleStatement(() -> loanRepository.findRows(null, null, PAGE_SIZE, byLoanDate));
+        assertThat(all.getContent()).hasSize(PAGE_SIZE)
+                .allSatisfy(row -> assertThat(row.getUserEmail()).isNotNull())
+                .allSatisfy(row -> assertThat(row.getBookTitle()).isNotNull());
+
+        Long cursor = all.getContent().get(PAGE_SIZE - 1).getId();
+        Window<LoanRow> next = singleStatement(() -> loanRepository.findRows(null, cursor, PAGE_SIZE, byLoanDate));
+        assertThat(next.getContent()).hasSize(ROWS - PAGE_SIZE);
+
+        Window<LoanRow> own = singleStatement(() -> loanRepository.findRows(userId, null, PAGE_SIZE, byLoanDate));
+        assertThat(own.getContent()).hasSize(ROWS / 3).allSatisfy(row -> assertThat(row.getUserEmail()).isEqualTo("rows0@example.com"));
+    }
+
+    private <T> T singleStatement(Supplier<T> page) {
+        statistics.clear();
+        T result = page.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.adriano.library.controller.api;
+
+import com.adriano.library.business.domain.entity.User;
+import com.adriano.library.business.persistence.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The production API chain: HTTP Basic checks the password once, later polls ride on the session.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"prod", "test"})
+class ApiSessionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void pollsAfterTheFirstCostNoPasswordHash() throws Exception {
+        User kiosk = new User();
+        kiosk.setEmail("kiosk@example.com");
+        kiosk.setPassword(passwordEncoder.encode("kiosk-secret"));
+        userRepository.save(kiosk);
+        double before = passwordChecks();
+
+        MockHttpSession session = (MockHttpSession) mockMvc.perform(get("/api/v1/books")
+                        .with(httpBasic("kiosk@example.com", "kiosk-secret")))
+                .andExpect(status().isOk())
+                .andReturn().getRequest().getSession(false);
+        assertThat(session).isNotNull();
+
+        mockMvc.perform(get("/api/v1/books").session(session)).andExpect(status().isOk());
+        // Clients that resend the header with the cookie are not checked again either
+        mockMvc.perform(get("/api/v1/books").session(session)
+                .with(httpBasic("kiosk@example.com", "kiosk-secret"))).andExpect(status().isOk());
+        assertThat(passwordChecks() - before).isEqualTo(1);
+
+        // A write carried by the cookie alone needs a CSRF token
+        mockMvc.perform(post("/api/v1/books").session(session)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    private double passwordChecks() {
+        var timer = meterRegistry.find("library.password.hash").tag("operation", "matches").timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.adriano.library.controller.view;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests for uploaded files, and requests that try to leave the upload
+ * directory. The files live in a temporary directory next to one that must never be served.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UploadControllerTests {
+
+    private static final String HASHED = "ab".repeat(32) + ".txt";
+    private static final String BODY = "0123456789";
+    private static final String ETAG = "\"" + "ab".repeat(32) + "\"";
+
+    private static Path uploads;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        Path root = Files.createTempDirectory("uploads-test");
+        uploads = Files.createDirectory(root.resolve("uploads"));
+        Files.writeString(uploads.resolve(HASHED), BODY);
+        Files.writeString(root.resolve("secret.txt"), "secret");
+        registry.add("library.uploads.dir", uploads::toString);
+    }
+
+    @Test
+    void hashedFileIsImmutableAndRevalidatesTo304() throws Exception {
+        mockMvc.perform(file())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().string(BODY));
+
+        mockMvc.perform(file().header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws Exception {
+        mockMvc.perform(file().header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(file().header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeFile() throws Exception {
+        mockMvc.perform(file().header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"older\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string(BODY));
+
+        mockMvc.perform(file().header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    void pathsOutsideTheUploadDirectoryAreNotServed() throws Exception {
+        for (String path : new String[]{"/uploads/../secret.txt", "/uploads/%2e%2e/secret.txt", "/uploads/..%2fsecret.txt"}) {
+            int status = mockMvc.perform(get(path).with(user("reader").roles("USER")))
+                    .andReturn().getResponse().getStatus();
+            // Spring Security's firewall turns these away before they reach the controller
+            assertThat(status).as(path).isEqualTo(400);
+        }
+
+        // A path that got past the firewall is still kept inside the upload directory
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/../secret.txt");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new UploadController(uploads).serve(request, response);
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentAsString()).doesNotContain("secret");
+    }
+
+    private static MockHttpServletRequestBuilder file() {
+        return get("/uploads/" + HASHED).with(user("reader").roles("USER"));
+    }
+}
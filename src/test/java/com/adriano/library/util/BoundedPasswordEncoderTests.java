@@ -0,0 +1,27 @@
+package com.adriano.library.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTests {
+
+    @Test
+    void onlyWeakerHashesAreUpgraded() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(10), new SimpleMeterRegistry())) {
+            String weaker = new BCryptPasswordEncoder(4).encode("secret");
+            String same = encoder.encode("secret");
+            String stronger = new BCryptPasswordEncoder(6).encode("secret");
+
+            assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+            assertThat(encoder.upgradeEncoding(same)).isFalse();
+            assertThat(encoder.upgradeEncoding(stronger)).isFalse();
+            assertThat(encoder.upgradeEncoding("{noop}secret")).isFalse();
+            assertThat(encoder.matches("secret", stronger)).isTrue();
+        }
+    }
+}